@@ -10,18 +10,50 @@ mkdir -p build/classes
 javac -d build/classes \
     -cp . \
     src/main/java/com/gameengine/math/Vector2.java \
+    src/main/java/com/gameengine/math/ScratchVectors.java \
     src/main/java/com/gameengine/input/InputManager.java \
     src/main/java/com/gameengine/core/Component.java \
+    src/main/java/com/gameengine/core/ChangeTick.java \
+    src/main/java/com/gameengine/core/Interpolation.java \
+    src/main/java/com/gameengine/core/ParallelExecutor.java \
+    src/main/java/com/gameengine/core/IoExecutor.java \
+    src/main/java/com/gameengine/core/FramePacer.java \
+    src/main/java/com/gameengine/core/TimingWheel.java \
+    src/main/java/com/gameengine/core/ComponentRegistry.java \
     src/main/java/com/gameengine/core/GameObject.java \
     src/main/java/com/gameengine/core/Player.java \
+    src/main/java/com/gameengine/core/BulletPool.java \
+    src/main/java/com/gameengine/ecs/Archetype.java \
+    src/main/java/com/gameengine/ecs/ArchetypeChunk.java \
+    src/main/java/com/gameengine/ecs/EntityHandle.java \
+    src/main/java/com/gameengine/ecs/EntityRegistry.java \
+    src/main/java/com/gameengine/ecs/EntityStorage.java \
+    src/main/java/com/gameengine/ecs/StorageSlot.java \
+    src/main/java/com/gameengine/ecs/StoredComponent.java \
+    src/main/java/com/gameengine/ecs/GameSystem.java \
+    src/main/java/com/gameengine/ecs/SystemScheduler.java \
+    src/main/java/com/gameengine/ecs/AmortizedScheduler.java \
+    src/main/java/com/gameengine/ecs/PhysicsIntegrator.java \
     src/main/java/com/gameengine/components/TransformComponent.java \
     src/main/java/com/gameengine/components/PhysicsComponent.java \
     src/main/java/com/gameengine/components/RenderComponent.java \
     src/main/java/com/gameengine/components/HealthComponent.java \
+    src/main/java/com/gameengine/components/ColliderComponent.java \
+    src/main/java/com/gameengine/graphics/TripleBuffer.java \
     src/main/java/com/gameengine/graphics/Renderer.java \
     src/main/java/com/gameengine/core/GameEngine.java \
+    src/main/java/com/gameengine/systems/PlayerInputSystem.java \
+    src/main/java/com/gameengine/systems/EnemyShootingSystem.java \
+    src/main/java/com/gameengine/systems/CollisionMatrix.java \
+    src/main/java/com/gameengine/systems/CollisionSystem.java \
+    src/main/java/com/gameengine/systems/BoundarySystem.java \
+    src/main/java/com/gameengine/spatial/NarrowphaseKernel.java \
+    src/main/java/com/gameengine/spatial/RegionPartition.java \
+    src/main/java/com/gameengine/spatial/SpatialHashGrid.java \
     src/main/java/com/gameengine/core/GameLogic.java \
     src/main/java/com/gameengine/scene/Scene.java \
+    src/main/java/com/gameengine/scene/EntityQuery.java \
+    src/main/java/com/gameengine/scene/CommandBuffer.java \
     src/main/java/com/gameengine/scene/GameScene.java \
     src/main/java/com/gameengine/scene/MenuScene.java \
     src/main/java/com/gameengine/scene/ReplaySelectionScene.java \
@@ -33,9 +65,21 @@ javac -d build/classes \
     src/main/java/com/gameengine/recording/FileRecordingStorage.java \
     src/main/java/com/gameengine/recording/RecordingConfig.java \
     src/main/java/com/gameengine/recording/RecordingJson.java \
-    src/main/java/com/gameengine/recording/RecordingService.java
+    src/main/java/com/gameengine/recording/RecordingService.java \
+    src/main/java/com/gameengine/benchmark/ComponentLookupBenchmark.java \
+    src/main/java/com/gameengine/benchmark/NarrowphaseBenchmark.java \
+    src/main/java/com/gameengine/benchmark/PhysicsBenchmark.java \
+    src/main/java/com/gameengine/benchmark/RegionScalingBenchmark.java \
+    src/main/java/com/gameengine/benchmark/SceneChurnBenchmark.java \
+    src/main/java/com/gameengine/benchmark/SpatialHashBenchmark.java
 
 if [ $? -eq 0 ]; then
+    # 可选的 SIMD 窄相内核，需要 jdk.incubator.vector 模块；编译失败时运行时自动使用标量实现
+    javac -d build/classes \
+        -cp build/classes \
+        --add-modules jdk.incubator.vector \
+        src/main/java/com/gameengine/spatial/VectorNarrowphase.java 2>/dev/null \
+        || echo "未编译 SIMD 窄相内核（需要 jdk.incubator.vector），使用标量实现"
     echo "编译成功！"
     echo "运行游戏: java -cp build/classes com.gameengine.example.GameExample"
 else
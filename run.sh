@@ -8,7 +8,12 @@ echo "启动游戏引擎..."
 
 if [ $? -eq 0 ]; then
     echo "运行游戏..."
-    java -cp build/classes com.gameengine.example.GameExample
+    # SIMD 窄相内核编译成功时需要在运行时加入向量模块，否则自动退回标量实现
+    JAVA_OPTS=""
+    if [ -f build/classes/com/gameengine/spatial/VectorNarrowphase.class ]; then
+        JAVA_OPTS="--add-modules jdk.incubator.vector"
+    fi
+    java $JAVA_OPTS -cp build/classes com.gameengine.example.GameExample
 else
     echo "编译失败，无法运行游戏"
     exit 1
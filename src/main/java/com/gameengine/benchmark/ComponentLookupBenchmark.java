@@ -0,0 +1,96 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 组件查找基准：线性 isInstance 扫描 vs 类型注册表槽位
+ * 运行: java -cp build/classes com.gameengine.benchmark.ComponentLookupBenchmark [实体数]
+ */
+public class ComponentLookupBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 50;
+
+    public static void main(String[] args) {
+        int entityCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        List<GameObject> entities = new ArrayList<>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            GameObject obj = new GameObject("Enemy");
+            obj.addComponent(new TransformComponent(new Vector2(i, i)));
+            obj.addComponent(new PhysicsComponent());
+            obj.addComponent(new RenderComponent());
+            if (i % 2 == 0) {
+                obj.addComponent(new HealthComponent(10));
+            }
+            entities.add(obj);
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += linearRound(entities);
+            sink += registryRound(entities);
+        }
+
+        long linearNanos = 0;
+        long registryNanos = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long t0 = System.nanoTime();
+            sink += linearRound(entities);
+            long t1 = System.nanoTime();
+            sink += registryRound(entities);
+            long t2 = System.nanoTime();
+            linearNanos += t1 - t0;
+            registryNanos += t2 - t1;
+        }
+
+        // 每轮每个实体做4次查找（3次 getComponent + 1次 hasComponent）
+        double lookups = (double) MEASURE_ROUNDS * entityCount * 4;
+        System.out.printf("entities=%d%n", entityCount);
+        System.out.printf("linear scan : %.2f ns/lookup%n", linearNanos / lookups);
+        System.out.printf("registry    : %.2f ns/lookup%n", registryNanos / lookups);
+        System.out.printf("speed-up    : %.2fx%n", (double) linearNanos / Math.max(1, registryNanos));
+        System.out.println("(sink=" + sink + ")");
+    }
+
+    private static long linearRound(List<GameObject> entities) {
+        long hits = 0;
+        for (GameObject obj : entities) {
+            if (linearFind(obj, TransformComponent.class) != null) hits++;
+            if (linearFind(obj, RenderComponent.class) != null) hits++;
+            if (linearFind(obj, PhysicsComponent.class) != null) hits++;
+            if (linearFind(obj, HealthComponent.class) != null) hits++;
+        }
+        return hits;
+    }
+
+    private static long registryRound(List<GameObject> entities) {
+        long hits = 0;
+        for (GameObject obj : entities) {
+            if (obj.getComponent(TransformComponent.class) != null) hits++;
+            if (obj.getComponent(RenderComponent.class) != null) hits++;
+            if (obj.getComponent(PhysicsComponent.class) != null) hits++;
+            if (obj.hasComponent(HealthComponent.class)) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * 旧实现：按添加顺序逐个 isInstance 比较
+     */
+    private static Component<?> linearFind(GameObject obj, Class<?> type) {
+        for (Component<?> component : obj.getComponents()) {
+            if (type.isInstance(component)) {
+                return component;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.spatial.NarrowphaseKernel;
+
+import java.util.Random;
+
+/**
+ * 窄相内核基准：一颗子弹对一组敌人中心做距离检测（子弹-敌人阶段的内层循环），标量实现 vs 当前可用的最快实现
+ * 中心随机分布在 800x600 的世界里，敌人半径 10、子弹半径 2、边距 3；每颗子弹报告所有命中，两种实现的结果逐项比较
+ * 运行: java --add-modules jdk.incubator.vector -cp build/classes com.gameengine.benchmark.NarrowphaseBenchmark [敌人数...]
+ */
+public class NarrowphaseBenchmark {
+    private static final int QUERIES = 2_000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int[] sizes = {256, 4_096, 65_536};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.println("kernel: " + NarrowphaseKernel.get().getName());
+        for (int n : sizes) {
+            run(n);
+        }
+    }
+
+    private static void run(int enemyCount) {
+        Random random = new Random(42);
+        float[] xs = new float[enemyCount];
+        float[] ys = new float[enemyCount];
+        float[] rs = new float[enemyCount];
+        for (int i = 0; i < enemyCount; i++) {
+            xs[i] = random.nextFloat() * 800;
+            ys[i] = random.nextFloat() * 600;
+            rs[i] = 10;
+            // 少量已移除的敌人
+            if (i % 17 == 0) {
+                xs[i] = Float.NaN;
+                ys[i] = Float.NaN;
+            }
+        }
+        float[] qx = new float[QUERIES];
+        float[] qy = new float[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            qx[q] = random.nextFloat() * 800;
+            qy[q] = random.nextFloat() * 600;
+        }
+
+        NarrowphaseKernel scalar = NarrowphaseKernel.scalar();
+        NarrowphaseKernel fast = NarrowphaseKernel.get();
+        // 预热
+        long expected = 0;
+        long actual = 0;
+        for (int i = 0; i < 5; i++) {
+            expected = scan(scalar, qx, qy, xs, ys, rs);
+            actual = scan(fast, qx, qy, xs, ys, rs);
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            expected = scan(scalar, qx, qy, xs, ys, rs);
+        }
+        long t1 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            actual = scan(fast, qx, qy, xs, ys, rs);
+        }
+        long t2 = System.nanoTime();
+
+        double scalarNs = (double) (t1 - t0) / ROUNDS / QUERIES / enemyCount;
+        double fastNs = (double) (t2 - t1) / ROUNDS / QUERIES / enemyCount;
+        System.out.printf("enemies=%d  checksum=%d  match=%b%n", enemyCount, expected, expected == actual);
+        System.out.printf("  scalar      : %.3f ns/test%n", scalarNs);
+        System.out.printf("  %-12s: %.3f ns/test%n", fast.getName().split("\\(")[0], fastNs);
+        System.out.printf("  speed-up    : %.2fx%n", scalarNs / Math.max(1e-9, fastNs));
+    }
+
+    /**
+     * 所有查询的命中下标按顺序折叠成校验和，顺序或集合不同都会改变结果
+     */
+    private static long scan(NarrowphaseKernel kernel, float[] qx, float[] qy, float[] xs, float[] ys, float[] rs) {
+        long[] checksum = {0};
+        for (int q = 0; q < qx.length; q++) {
+            kernel.scan(qx[q], qy[q], 2, 3, xs, ys, rs, 0, xs.length, i -> {
+                checksum[0] = checksum[0] * 31 + i + 1;
+                return false;
+            });
+        }
+        return checksum[0];
+    }
+}
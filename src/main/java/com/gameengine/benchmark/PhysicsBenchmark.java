@@ -0,0 +1,91 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 物理积分基准：逐组件 PhysicsComponent.update vs 原型块上的批量积分
+ * 两个场景放入相同的刚体（一部分受重力、一部分每帧施加外力），模拟相同步数后逐位比较位置和速度
+ * 运行: java -cp build/classes com.gameengine.benchmark.PhysicsBenchmark [刚体数]
+ */
+public class PhysicsBenchmark {
+    private static final float DT = 1.0f / 60;
+    private static final int WARMUP_FRAMES = 300;
+    private static final int MEASURE_FRAMES = 600;
+
+    public static void main(String[] args) {
+        int bodyCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Scene perComponent = newScene(bodyCount, false);
+        Scene batch = newScene(bodyCount, true);
+
+        run(perComponent, WARMUP_FRAMES);
+        run(batch, WARMUP_FRAMES);
+        double perComponentMs = run(perComponent, MEASURE_FRAMES);
+        double batchMs = run(batch, MEASURE_FRAMES);
+
+        System.out.printf("bodies=%d frames=%d identical=%b%n", bodyCount, MEASURE_FRAMES, identical(perComponent, batch));
+        System.out.printf("per-component : %.3f ms/frame%n", perComponentMs);
+        System.out.printf("batch SoA     : %.3f ms/frame%n", batchMs);
+        System.out.printf("speed-up      : %.2fx%n", perComponentMs / Math.max(1e-9, batchMs));
+    }
+
+    private static Scene newScene(int bodyCount, boolean batchPhysics) {
+        Random random = new Random(42);
+        Scene scene = new Scene("Benchmark");
+        scene.setBatchPhysics(batchPhysics);
+        for (int i = 0; i < bodyCount; i++) {
+            GameObject obj = new GameObject("Body");
+            obj.addComponent(new TransformComponent(new Vector2(random.nextFloat() * 800, random.nextFloat() * 600)));
+            obj.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE, new Vector2(4, 4),
+                    new RenderComponent.Color(1, 1, 1, 1)));
+            PhysicsComponent physics = obj.addComponent(new PhysicsComponent(0.5f + random.nextFloat()));
+            physics.setVelocity((random.nextFloat() - 0.5f) * 200, (random.nextFloat() - 0.5f) * 200);
+            physics.setFriction(0.95f + random.nextFloat() * 0.05f);
+            physics.setUseGravity(i % 3 == 0);
+            scene.addGameObject(obj);
+        }
+        scene.update(0);
+        return scene;
+    }
+
+    /**
+     * 每帧给一部分刚体施加外力，再更新场景；返回场景更新的每帧平均耗时（不含施力）
+     */
+    private static double run(Scene scene, int frames) {
+        List<GameObject> objs = scene.getGameObjects();
+        Vector2 force = new Vector2(3, -2);
+        long total = 0;
+        for (int f = 0; f < frames; f++) {
+            for (int i = f % 4; i < objs.size(); i += 4) {
+                objs.get(i).getComponent(PhysicsComponent.class).applyForce(force);
+            }
+            long start = System.nanoTime();
+            scene.update(DT);
+            total += System.nanoTime() - start;
+        }
+        return total / 1_000_000.0 / frames;
+    }
+
+    private static boolean identical(Scene a, Scene b) {
+        List<GameObject> as = a.getGameObjects();
+        List<GameObject> bs = b.getGameObjects();
+        for (int i = 0; i < as.size(); i++) {
+            Vector2 pa = as.get(i).getComponent(TransformComponent.class).getPosition();
+            Vector2 pb = bs.get(i).getComponent(TransformComponent.class).getPosition();
+            Vector2 va = as.get(i).getComponent(PhysicsComponent.class).getVelocity();
+            Vector2 vb = bs.get(i).getComponent(PhysicsComponent.class).getVelocity();
+            if (Float.floatToIntBits(pa.x) != Float.floatToIntBits(pb.x) || Float.floatToIntBits(pa.y) != Float.floatToIntBits(pb.y)
+                    || Float.floatToIntBits(va.x) != Float.floatToIntBits(vb.x) || Float.floatToIntBits(va.y) != Float.floatToIntBits(vb.y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
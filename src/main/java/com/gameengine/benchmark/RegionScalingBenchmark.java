@@ -0,0 +1,197 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.ChangeTick;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.ParallelExecutor;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 区域分解扩展性基准：全局、网格、区域三种碰撞模式在 1/2/4/N 个工作线程上的完整模拟步吞吐
+ * 每一步与游戏循环相同：推进变更计数、交换位置快照、更新场景（批量积分）、运行游戏逻辑的系统（边界、碰撞等）；
+ * 每步按固定的随机序列补充敌人和子弹，保持负载。所有配置跑相同的步数，最后比较剩余实体的位置、击杀数和玩家生命值，
+ * 与单线程全局检测的结果一致才算匹配
+ * 运行: java -cp build/classes com.gameengine.benchmark.RegionScalingBenchmark [实体数] [区域列数] [区域行数]
+ */
+public class RegionScalingBenchmark {
+    private static final float DT = 1.0f / 60;
+    private static final int WARMUP_TICKS = 120;
+    private static final int MEASURE_TICKS = 240;
+
+    private enum Mode {
+        GLOBAL,
+        GRID,
+        REGIONS
+    }
+
+    private static final class Result {
+        final double msPerTick;
+        final int averageEntities;
+        final String signature;
+
+        Result(double msPerTick, int averageEntities, String signature) {
+            this.msPerTick = msPerTick;
+            this.averageEntities = averageEntities;
+            this.signature = signature;
+        }
+    }
+
+    public static void main(String[] args) {
+        int entityCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int[] workers = workerCounts();
+
+        // 预热：每种模式先用最多的线程跑一遍，不计入结果
+        for (Mode mode : Mode.values()) {
+            run(mode, workers[workers.length - 1], entityCount, columns, rows);
+        }
+
+        System.out.printf("entities=%d regions=%dx%d ticks=%d cores=%d%n", entityCount, columns, rows,
+                MEASURE_TICKS, Runtime.getRuntime().availableProcessors());
+        String reference = null;
+        for (Mode mode : Mode.values()) {
+            double single = 0;
+            for (int w : workers) {
+                Result result = run(mode, w, entityCount, columns, rows);
+                if (reference == null) {
+                    reference = result.signature;
+                }
+                if (w == 1) {
+                    single = result.msPerTick;
+                }
+                System.out.printf("  %-7s workers=%-2d %8.3f ms/tick  %7.1f ticks/s  avg entities=%d  scaling=%.2fx  match=%b%n",
+                        mode.name().toLowerCase(), w, result.msPerTick, 1000 / Math.max(1e-9, result.msPerTick),
+                        result.averageEntities, single / Math.max(1e-9, result.msPerTick), reference.equals(result.signature));
+            }
+        }
+    }
+
+    /**
+     * 1、2、4 和本机核数（去重、升序）
+     */
+    private static int[] workerCounts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int w : new int[]{1, 2, 4, cores}) {
+            if (!counts.contains(w)) {
+                counts.add(w);
+            }
+        }
+        counts.sort(null);
+        int[] result = new int[counts.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    private static Result run(Mode mode, int workers, int entityCount, int columns, int rows) {
+        ParallelExecutor parallel = new ParallelExecutor(workers);
+        try {
+            Scene scene = new Scene("Benchmark");
+            scene.setParallel(parallel);
+            GameLogic logic = new GameLogic(scene, parallel);
+            if (mode == Mode.GLOBAL) {
+                logic.setCollisionSpatialHash(false);
+            } else if (mode == Mode.REGIONS) {
+                logic.setCollisionRegions(columns, rows);
+            }
+
+            Random random = new Random(42);
+            GameObject player = new GameObject("Player");
+            player.addComponent(new TransformComponent(new Vector2(400, 300)));
+            player.addComponent(new PhysicsComponent(1.0f));
+            // 足够多的生命值，整个基准期间不会结束游戏
+            player.addComponent(new HealthComponent(Integer.MAX_VALUE));
+            player.addComponent(new ColliderComponent(ColliderComponent.Shape.CIRCLE, new Vector2(20, 20), ColliderComponent.LAYER_PLAYER));
+            scene.addGameObject(player);
+            for (int i = 0; i < entityCount; i++) {
+                spawn(scene, random, i);
+            }
+
+            int spawnPerTick = Math.max(1, entityCount / 100);
+            for (int t = 0; t < WARMUP_TICKS; t++) {
+                tick(scene, logic, random, spawnPerTick);
+            }
+            long total = 0;
+            long entities = 0;
+            for (int t = 0; t < MEASURE_TICKS; t++) {
+                long start = System.nanoTime();
+                tick(scene, logic, random, spawnPerTick);
+                total += System.nanoTime() - start;
+                entities += scene.getGameObjects().size();
+            }
+            return new Result(total / 1_000_000.0 / MEASURE_TICKS, (int) (entities / MEASURE_TICKS),
+                    signature(scene, logic, player));
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    /**
+     * 一个模拟步，顺序与游戏循环相同，最后补充新实体（下一步加入场景）
+     */
+    private static void tick(Scene scene, GameLogic logic, Random random, int spawnPerTick) {
+        ChangeTick.advance();
+        scene.getStorage().swapBuffers();
+        scene.update(DT);
+        logic.update(DT);
+        for (int i = 0; i < spawnPerTick; i++) {
+            spawn(scene, random, i);
+        }
+    }
+
+    /**
+     * 按下标轮流生成敌人、玩家子弹和敌人子弹（2:1:1）
+     */
+    private static void spawn(Scene scene, Random random, int i) {
+        switch (i % 4) {
+            case 0:
+            case 1:
+                scene.addGameObject(newEntity("Enemy", random, 20, 50, ColliderComponent.LAYER_ENEMY, 20));
+                break;
+            case 2:
+                scene.addGameObject(newEntity("Bullet", random, 4, 400, ColliderComponent.LAYER_PLAYER_BULLET, 1));
+                break;
+            default:
+                scene.addGameObject(newEntity("EnemyBullet", random, 4, 400, ColliderComponent.LAYER_ENEMY_BULLET, 1));
+                break;
+        }
+    }
+
+    private static GameObject newEntity(String name, Random random, float size, float speed, int layer, int damage) {
+        GameObject obj = new GameObject(name);
+        obj.addComponent(new TransformComponent(new Vector2(random.nextFloat() * 800, random.nextFloat() * 600)));
+        PhysicsComponent physics = obj.addComponent(new PhysicsComponent(0.5f));
+        physics.setVelocity((random.nextFloat() - 0.5f) * 2 * speed, (random.nextFloat() - 0.5f) * 2 * speed);
+        physics.setFriction(1.0f);
+        physics.setUseGravity(false);
+        ColliderComponent collider = obj.addComponent(new ColliderComponent(ColliderComponent.Shape.CIRCLE, new Vector2(size, size), layer));
+        collider.setDamage(damage);
+        return obj;
+    }
+
+    /**
+     * 剩余实体（名称和位置的逐位值，排序后取哈希）、击杀数和玩家生命值
+     */
+    private static String signature(Scene scene, GameLogic logic, GameObject player) {
+        List<String> entities = new ArrayList<>();
+        for (GameObject obj : scene.getGameObjects()) {
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            entities.add(obj.getName() + ":" + Float.floatToIntBits(transform.getX()) + ":" + Float.floatToIntBits(transform.getY()));
+        }
+        entities.sort(null);
+        return entities.size() + "/" + entities.hashCode() + "/" + logic.getEnemiesKilled()
+                + "/" + player.getComponent(HealthComponent.class).getCurrentHP();
+    }
+}
@@ -0,0 +1,96 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 场景增删基准：以 60 帧/秒模拟每秒 5 万次生成和销毁
+ * 对比旧的 ArrayList.contains/remove + 每次复制 getGameObjects() 与当前的交换删除实现
+ * 运行: java -cp build/classes com.gameengine.benchmark.SceneChurnBenchmark [常驻实体数]
+ */
+public class SceneChurnBenchmark {
+    private static final int FPS = 60;
+    private static final int CHURN_PER_SECOND = 50_000;
+    private static final int SECONDS = 5;
+
+    public static void main(String[] args) {
+        int population = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int churnPerFrame = CHURN_PER_SECOND / FPS;
+        System.out.printf("population=%d churn=%d/s (%d/frame) frames=%d%n",
+                population, CHURN_PER_SECOND, churnPerFrame, FPS * SECONDS);
+
+        // 预热
+        runScene(population, churnPerFrame, FPS);
+        runLegacy(population, churnPerFrame, FPS);
+
+        double sceneMs = runScene(population, churnPerFrame, FPS * SECONDS);
+        double legacyMs = runLegacy(population, churnPerFrame, FPS * SECONDS);
+        System.out.printf("legacy list : %.3f ms/frame%n", legacyMs);
+        System.out.printf("swap-remove : %.3f ms/frame%n", sceneMs);
+        System.out.printf("speed-up    : %.2fx%n", legacyMs / Math.max(1e-9, sceneMs));
+    }
+
+    private static double runScene(int population, int churnPerFrame, int frames) {
+        Random random = new Random(42);
+        Scene scene = new Scene("Benchmark");
+        for (int i = 0; i < population; i++) {
+            scene.addGameObject(newEntity(i));
+        }
+        scene.update(0);
+
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            List<GameObject> objs = scene.getGameObjects();
+            for (int i = 0; i < churnPerFrame; i++) {
+                scene.removeGameObject(objs.get(random.nextInt(objs.size())));
+                scene.addGameObject(newEntity(i));
+            }
+            scene.update(0);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / frames;
+    }
+
+    /**
+     * 旧 Scene 的列表操作：contains 检查、按对象 remove、每次调用复制列表
+     */
+    private static double runLegacy(int population, int churnPerFrame, int frames) {
+        Random random = new Random(42);
+        List<GameObject> gameObjects = new ArrayList<>();
+        List<GameObject> toAdd = new ArrayList<>();
+        List<GameObject> toRemove = new ArrayList<>();
+        for (int i = 0; i < population; i++) {
+            gameObjects.add(newEntity(i));
+        }
+
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            List<GameObject> objs = new ArrayList<>(gameObjects);
+            for (int i = 0; i < churnPerFrame; i++) {
+                GameObject victim = objs.get(random.nextInt(objs.size()));
+                if (gameObjects.contains(victim)) {
+                    toRemove.add(victim);
+                }
+                toAdd.add(newEntity(i));
+            }
+            gameObjects.addAll(toAdd);
+            toAdd.clear();
+            for (GameObject obj : toRemove) {
+                gameObjects.remove(obj);
+            }
+            toRemove.clear();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / frames;
+    }
+
+    private static GameObject newEntity(int i) {
+        GameObject obj = new GameObject("Bullet");
+        obj.addComponent(new TransformComponent(new Vector2(i % 800, i % 600)));
+        return obj;
+    }
+}
@@ -0,0 +1,111 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.ParallelExecutor;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+import com.gameengine.systems.CollisionSystem;
+
+import java.util.Random;
+
+/**
+ * 空间哈希基准：在同一个场景上分别用碰撞系统的全局逐对路径和网格路径（setCollisionSpatialHash(false/true)）做检测，
+ * 比较两者移除的实体和造成的伤害；两条路径的预热和计时轮数相同，报告平均每帧耗时
+ * 实体随机分布在 800x600 的世界里：一半敌人（20x20，每 8 个中有一个带生命值）、一半子弹（4x4，玩家和敌人各半），另有玩家
+ * 运行: java -cp build/classes com.gameengine.benchmark.SpatialHashBenchmark [实体数...]
+ */
+public class SpatialHashBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int[] sizes = {1_000, 10_000, 50_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        ParallelExecutor parallel = new ParallelExecutor();
+        try {
+            for (int n : sizes) {
+                run(n, parallel);
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    private static void run(int entityCount, ParallelExecutor parallel) {
+        Scene scene = newScene(entityCount);
+        GameLogic logic = new GameLogic(scene, parallel);
+        CollisionSystem collision = logic.getCollisionSystem();
+
+        logic.setCollisionSpatialHash(false);
+        double bruteMs = measure(collision);
+        CollisionSystem.Contacts expected = collision.detect();
+
+        logic.setCollisionSpatialHash(true);
+        double gridMs = measure(collision);
+        CollisionSystem.Contacts actual = collision.detect();
+
+        boolean match = expected.getRemoved().equals(actual.getRemoved())
+                && expected.getDamage().equals(actual.getDamage());
+        System.out.printf("entities=%d  removed=%d  damaged=%d  match=%b%n", entityCount,
+                expected.getRemoved().cardinality(), expected.getDamage().size(), match);
+        System.out.printf("  brute force : %.3f ms/frame%n", bruteMs);
+        System.out.printf("  spatial hash: %.3f ms/frame%n", gridMs);
+        System.out.printf("  speed-up    : %.2fx%n", bruteMs / Math.max(1e-9, gridMs));
+    }
+
+    /**
+     * 预热后取 ROUNDS 次检测的平均耗时；检测不修改场景，每一轮的输入相同
+     */
+    private static double measure(CollisionSystem collision) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            collision.detect();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            collision.detect();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+
+    private static Scene newScene(int entityCount) {
+        Random random = new Random(42);
+        Scene scene = new Scene("Benchmark");
+        GameObject player = newEntity("Player", random, 20, ColliderComponent.LAYER_PLAYER, 0);
+        player.getComponent(TransformComponent.class).setPosition(new Vector2(400, 300));
+        player.addComponent(new HealthComponent(1000));
+        scene.addGameObject(player);
+        for (int i = 0; i < entityCount; i++) {
+            GameObject obj;
+            if (i % 2 == 0) {
+                obj = newEntity("Enemy", random, 20, ColliderComponent.LAYER_ENEMY, 20);
+                if (i % 16 == 0) {
+                    obj.addComponent(new HealthComponent(30));
+                }
+            } else if (i % 4 == 1) {
+                obj = newEntity("Bullet", random, 4, ColliderComponent.LAYER_PLAYER_BULLET, 1);
+            } else {
+                obj = newEntity("EnemyBullet", random, 4, ColliderComponent.LAYER_ENEMY_BULLET, 1);
+            }
+            scene.addGameObject(obj);
+        }
+        scene.update(0);
+        return scene;
+    }
+
+    private static GameObject newEntity(String name, Random random, float size, int layer, int damage) {
+        GameObject obj = new GameObject(name);
+        obj.addComponent(new TransformComponent(new Vector2(random.nextFloat() * 800, random.nextFloat() * 600)));
+        ColliderComponent collider = obj.addComponent(new ColliderComponent(ColliderComponent.Shape.CIRCLE, new Vector2(size, size), layer));
+        collider.setDamage(damage);
+        return obj;
+    }
+}
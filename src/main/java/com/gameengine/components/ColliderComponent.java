@@ -0,0 +1,189 @@
+package com.gameengine.components;
+
+import com.gameengine.core.Component;
+import com.gameengine.math.Vector2;
+
+/**
+ * 碰撞体组件：形状、尺寸、碰撞层和掩码，与渲染尺寸和实体名称无关
+ * 中心取变换位置（上一模拟步快照）加偏移，默认偏移为半个尺寸，与渲染矩形的中心重合
+ * 两个碰撞体只有在各自的掩码都包含对方的层时才会碰撞，哪些层之间检测由碰撞系统的层矩阵决定
+ */
+public class ColliderComponent extends Component<ColliderComponent> {
+    public static final int LAYER_PLAYER = 1;
+    public static final int LAYER_ENEMY = 1 << 1;
+    public static final int LAYER_PLAYER_BULLET = 1 << 2;
+    public static final int LAYER_ENEMY_BULLET = 1 << 3;
+    // 与所有层碰撞的掩码
+    public static final int MASK_ALL = ~0;
+
+    public enum Shape {
+        CIRCLE,
+        BOX
+    }
+
+    private Shape shape;
+    private float halfWidth;
+    private float halfHeight;
+    private float offsetX;
+    private float offsetY;
+    private int layer;
+    private int mask;
+    // 接触时对有生命值的一方造成的伤害
+    private int damage;
+
+    /**
+     * @param size 外接矩形的尺寸，圆形的半径取宽度的一半
+     * @param layer 所在的碰撞层，只能有一位
+     */
+    public ColliderComponent(Shape shape, Vector2 size, int layer) {
+        this.shape = shape;
+        this.halfWidth = size.x / 2;
+        this.halfHeight = size.y / 2;
+        this.offsetX = size.x * 0.5f;
+        this.offsetY = size.y * 0.5f;
+        this.mask = MASK_ALL;
+        setLayer(layer);
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        // 碰撞体不需要每帧更新，由碰撞系统读取
+    }
+
+    @Override
+    public void render() {
+    }
+
+    /**
+     * 与另一个碰撞体的层和掩码是否互相匹配
+     */
+    public boolean accepts(ColliderComponent other) {
+        return (mask & other.layer) != 0 && (other.mask & layer) != 0;
+    }
+
+    /**
+     * 两个碰撞体在给定中心处的间距是否小于 margin（重叠也算）
+     * 两个圆的判定与原先按渲染尺寸的距离检测逐位相同
+     */
+    public static boolean touches(ColliderComponent a, float ax, float ay,
+                                  ColliderComponent b, float bx, float by, float margin) {
+        if (a.shape == Shape.CIRCLE && b.shape == Shape.CIRCLE) {
+            return Vector2.distance(ax, ay, bx, by) < a.halfWidth + b.halfWidth + margin;
+        }
+        if (a.shape == Shape.BOX && b.shape == Shape.BOX) {
+            float dx = Math.abs(ax - bx);
+            float dy = Math.abs(ay - by);
+            float spanX = a.halfWidth + b.halfWidth;
+            float spanY = a.halfHeight + b.halfHeight;
+            if (dx < spanX && dy < spanY) return true;
+            return Vector2.distance(Math.max(0, dx - spanX), Math.max(0, dy - spanY), 0, 0) < margin;
+        }
+        // 圆和矩形：圆心到矩形的距离与半径比较
+        ColliderComponent box = a.shape == Shape.BOX ? a : b;
+        ColliderComponent circle = box == a ? b : a;
+        float gapX = Math.max(0, Math.abs(ax - bx) - box.halfWidth);
+        float gapY = Math.max(0, Math.abs(ay - by) - box.halfHeight);
+        return Vector2.distance(gapX, gapY, 0, 0) < circle.halfWidth + margin;
+    }
+
+    /**
+     * 外接圆半径，空间结构用它确定查询范围；圆形即半径
+     */
+    public float getBoundingRadius() {
+        if (shape == Shape.CIRCLE) {
+            return halfWidth;
+        }
+        return (float) Math.sqrt(halfWidth * halfWidth + halfHeight * halfHeight);
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    public boolean isCircle() {
+        return shape == Shape.CIRCLE;
+    }
+
+    public void setShape(Shape shape) {
+        this.shape = shape;
+        markChanged();
+    }
+
+    /**
+     * 圆形的半径（宽度的一半）
+     */
+    public float getRadius() {
+        return halfWidth;
+    }
+
+    public float getHalfWidth() {
+        return halfWidth;
+    }
+
+    public float getHalfHeight() {
+        return halfHeight;
+    }
+
+    /**
+     * 设置外接矩形的尺寸，不改变中心偏移
+     */
+    public void setSize(float width, float height) {
+        this.halfWidth = width / 2;
+        this.halfHeight = height / 2;
+        markChanged();
+    }
+
+    public float getOffsetX() {
+        return offsetX;
+    }
+
+    public float getOffsetY() {
+        return offsetY;
+    }
+
+    /**
+     * 设置中心相对变换位置的偏移
+     */
+    public void setOffset(float offsetX, float offsetY) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        markChanged();
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    public void setLayer(int layer) {
+        if (Integer.bitCount(layer) != 1) {
+            throw new IllegalArgumentException("collision layer must be a single bit: " + layer);
+        }
+        this.layer = layer;
+        markChanged();
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * 设置会与之碰撞的层，默认是所有层
+     */
+    public void setMask(int mask) {
+        this.mask = mask;
+        markChanged();
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    public void setDamage(int damage) {
+        this.damage = damage;
+        markChanged();
+    }
+}
@@ -1,6 +1,7 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.math.Vector2;
 
@@ -11,15 +12,50 @@ public class HealthComponent extends Component<HealthComponent> {
     private int maxHP;
     private int currentHP;
     private Renderer renderer;
+    // HP条挂在所属对象变换下的子节点，加到对象上时创建，移除或销毁时摘下
+    private TransformComponent bar;
+    // 渲染时复用的血条位置向量
+    private final Vector2 barPosition = new Vector2();
 
     public HealthComponent(int maxHP) {
         this.maxHP = maxHP;
         this.currentHP = maxHP;
     }
 
+    /**
+     * 加到对象上时调用：把HP条挂到对象的变换下（对象需要先有变换组件）
+     */
     @Override
     public void initialize() {
-        // 初始化健康组件
+        if (owner == null || bar != null) return;
+        TransformComponent transform = owner.getComponent(TransformComponent.class);
+        if (transform != null) {
+            bar = transform.addChild(new TransformComponent(new Vector2(-10, -40)));
+        }
+    }
+
+    /**
+     * 从对象上移除时（owner 为 null）先摘下HP条，所属对象不再挂有这个子节点
+     */
+    @Override
+    public void setOwner(GameObject owner) {
+        if (owner == null) {
+            detachBar();
+        }
+        super.setOwner(owner);
+    }
+
+    @Override
+    public void destroy() {
+        detachBar();
+        super.destroy();
+    }
+
+    private void detachBar() {
+        if (bar != null) {
+            bar.setParent(null);
+            bar = null;
+        }
     }
 
     @Override
@@ -29,29 +65,26 @@ public class HealthComponent extends Component<HealthComponent> {
 
     @Override
     public void render() {
-        if (!enabled || renderer == null) {
-            return;
-        }
-
-        TransformComponent transform = owner.getComponent(TransformComponent.class);
-        if (transform == null) {
+        // 只读HP条的位置，不改动层级
+        if (!enabled || renderer == null || bar == null) {
             return;
         }
 
-        Vector2 pos = transform.getPosition();
+        Vector2 pos = bar.getRenderPosition(barPosition);
         float hpRatio = (float) currentHP / maxHP;
 
         // 绘制红色背景
-        renderer.drawRect(pos.x - 10, pos.y - 40, 20, 5, 1.0f, 0.0f, 0.0f, 1.0f);
+        renderer.drawRect(pos.x, pos.y, 20, 5, 1.0f, 0.0f, 0.0f, 1.0f);
 
         // 绘制绿色HP条
-        renderer.drawRect(pos.x - 10, pos.y - 40, 20 * hpRatio, 5, 0.0f, 1.0f, 0.0f, 1.0f);
+        renderer.drawRect(pos.x, pos.y, 20 * hpRatio, 5, 0.0f, 1.0f, 0.0f, 1.0f);
     }
 
     /**
      * 受到伤害
      */
     public void takeDamage(int damage) {
+        markChanged();
         currentHP -= damage;
         if (currentHP < 0) currentHP = 0;
     }
@@ -2,12 +2,18 @@ package com.gameengine.components;
 
 import com.gameengine.core.Component;
 import com.gameengine.core.GameObject;
+import com.gameengine.ecs.Archetype;
+import com.gameengine.ecs.ArchetypeChunk;
+import com.gameengine.ecs.StorageSlot;
+import com.gameengine.ecs.StoredComponent;
 import com.gameengine.math.Vector2;
 
 /**
  * 物理组件，处理物理运动
+ * 入库后速度存放在原型块的 vx/vy 列中，上一模拟步的速度快照在 pvx/pvy 列中；
+ * 加速度、摩擦、重力和启用状态也存放在块中，场景启用批量积分时由 PhysicsIntegrator 统一积分
  */
-public class PhysicsComponent extends Component<PhysicsComponent> {
+public class PhysicsComponent extends Component<PhysicsComponent> implements StoredComponent {
     private Vector2 velocity;
     private Vector2 acceleration;
     private float mass;
@@ -37,27 +43,45 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     @Override
     public void update(float deltaTime) {
         if (!enabled) return;
+        // 入库的刚体由场景的批量积分处理
+        if (isBatchIntegrated()) return;
         
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform == null) return;
         
         // 应用重力
+        StorageSlot slot = storageSlot();
+        float accelX = slot != null ? slot.getChunk().ax[slot.getRow()] : acceleration.x;
+        float accelY = slot != null ? slot.getChunk().ay[slot.getRow()] : acceleration.y;
         if (useGravity) {
-            acceleration = acceleration.add(gravity);
+            accelX = accelX + gravity.x;
+            accelY = accelY + gravity.y;
         }
         
         // 更新速度
-        velocity = velocity.add(acceleration.multiply(deltaTime));
+        float velX = getVelocityX() + accelX * deltaTime;
+        float velY = getVelocityY() + accelY * deltaTime;
         
         // 应用摩擦力
-        velocity = velocity.multiply(friction);
+        velX = velX * friction;
+        velY = velY * friction;
+        setVelocity(velX, velY);
         
         // 更新位置
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
+        transform.translate(velX * deltaTime, velY * deltaTime);
         
         // 重置加速度
-        acceleration = new Vector2();
+        resetAcceleration();
+    }
+    
+    private void resetAcceleration() {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().ax[slot.getRow()] = 0;
+            slot.getChunk().ay[slot.getRow()] = 0;
+            return;
+        }
+        this.acceleration.set(0, 0);
     }
     
     @Override
@@ -69,8 +93,16 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 应用力
      */
     public void applyForce(Vector2 force) {
+        markChanged();
         if (mass > 0) {
-            acceleration = acceleration.add(force.multiply(1.0f / mass));
+            float inverseMass = 1.0f / mass;
+            StorageSlot slot = storageSlot();
+            if (slot != null) {
+                slot.getChunk().ax[slot.getRow()] += force.x * inverseMass;
+                slot.getChunk().ay[slot.getRow()] += force.y * inverseMass;
+                return;
+            }
+            acceleration.addLocal(force.x * inverseMass, force.y * inverseMass);
         }
     }
     
@@ -79,7 +111,8 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void applyImpulse(Vector2 impulse) {
         if (mass > 0) {
-            velocity = velocity.add(impulse.multiply(1.0f / mass));
+            float inverseMass = 1.0f / mass;
+            setVelocity(getVelocityX() + impulse.x * inverseMass, getVelocityY() + impulse.y * inverseMass);
         }
     }
     
@@ -87,60 +120,153 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 设置速度
      */
     public void setVelocity(Vector2 velocity) {
-        this.velocity = new Vector2(velocity);
+        setVelocity(velocity.x, velocity.y);
     }
     
     /**
      * 设置速度
      */
     public void setVelocity(float x, float y) {
-        this.velocity = new Vector2(x, y);
+        markChanged();
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().vx[slot.getRow()] = x;
+            slot.getChunk().vy[slot.getRow()] = y;
+            return;
+        }
+        this.velocity.set(x, y);
     }
     
     /**
      * 添加速度
      */
     public void addVelocity(Vector2 delta) {
-        this.velocity = velocity.add(delta);
+        setVelocity(getVelocityX() + delta.x, getVelocityY() + delta.y);
     }
     
     /**
      * 设置重力
      */
     public void setGravity(Vector2 gravity) {
-        this.gravity = new Vector2(gravity);
+        markChanged();
+        this.gravity.set(gravity);
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().gravityX[slot.getRow()] = gravity.x;
+            slot.getChunk().gravityY[slot.getRow()] = gravity.y;
+        }
     }
     
     /**
      * 启用/禁用重力
      */
     public void setUseGravity(boolean useGravity) {
+        markChanged();
         this.useGravity = useGravity;
+        storeFlags();
     }
     
     /**
      * 设置摩擦力
      */
     public void setFriction(float friction) {
+        markChanged();
         this.friction = Math.max(0, Math.min(1, friction));
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().friction[slot.getRow()] = this.friction;
+        }
+    }
+    
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        storeFlags();
+    }
+    
+    @Override
+    public void destroy() {
+        super.destroy();
+        storeFlags();
     }
     
     /**
      * 设置质量
      */
     public void setMass(float mass) {
+        markChanged();
         this.mass = Math.max(0.1f, mass);
     }
     
     // Getters
     public Vector2 getVelocity() {
-        return new Vector2(velocity);
+        return getVelocity(new Vector2());
+    }
+    
+    /**
+     * 把速度写入 out 并返回 out，不分配对象
+     */
+    public Vector2 getVelocity(Vector2 out) {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            return out.set(slot.getChunk().vx[slot.getRow()], slot.getChunk().vy[slot.getRow()]);
+        }
+        return out.set(velocity);
+    }
+    
+    public float getVelocityX() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().vx[slot.getRow()] : velocity.x;
+    }
+    
+    public float getVelocityY() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().vy[slot.getRow()] : velocity.y;
+    }
+    
+    /**
+     * 上一模拟步结束时的速度（只读快照），未入库时返回当前速度
+     */
+    public Vector2 getPreviousVelocity() {
+        return getPreviousVelocity(new Vector2());
+    }
+    
+    /**
+     * 把上一模拟步的速度写入 out 并返回 out，不分配对象
+     */
+    public Vector2 getPreviousVelocity(Vector2 out) {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            return out.set(slot.getChunk().pvx[slot.getRow()], slot.getChunk().pvy[slot.getRow()]);
+        }
+        return out.set(velocity);
     }
     
     public Vector2 getAcceleration() {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            return new Vector2(slot.getChunk().ax[slot.getRow()], slot.getChunk().ay[slot.getRow()]);
+        }
         return new Vector2(acceleration);
     }
     
+    /**
+     * 批量积分移动刚体时只在块中记录变更计数，这里取两者中较新的一个
+     */
+    @Override
+    public int getChangedTick() {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            return Math.max(super.getChangedTick(), slot.getChunk().movedTick[slot.getRow()]);
+        }
+        return super.getChangedTick();
+    }
+    
+    @Override
+    public boolean isChangedSince(int tick) {
+        return getChangedTick() >= tick;
+    }
+    
     public float getMass() {
         return mass;
     }
@@ -156,4 +282,65 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     public Vector2 getGravity() {
         return new Vector2(gravity);
     }
+    
+    @Override
+    public int storageColumns() {
+        return Archetype.PHYSICS;
+    }
+    
+    @Override
+    public void storeTo(ArchetypeChunk chunk, int row) {
+        chunk.vx[row] = velocity.x;
+        chunk.vy[row] = velocity.y;
+        chunk.pvx[row] = velocity.x;
+        chunk.pvy[row] = velocity.y;
+        chunk.ax[row] = acceleration.x;
+        chunk.ay[row] = acceleration.y;
+        chunk.friction[row] = friction;
+        chunk.gravityX[row] = gravity.x;
+        chunk.gravityY[row] = gravity.y;
+        chunk.bodyFlags[row] = flags();
+        chunk.movedTick[row] = 0;
+    }
+    
+    @Override
+    public void loadFrom(ArchetypeChunk chunk, int row) {
+        if (chunk.has(Archetype.PHYSICS)) {
+            this.velocity.set(chunk.vx[row], chunk.vy[row]);
+            this.acceleration.set(chunk.ax[row], chunk.ay[row]);
+            if (chunk.movedTick[row] > super.getChangedTick()) {
+                markChanged();
+            }
+        }
+    }
+    
+    /**
+     * 是否由场景的批量积分处理：已入库、与变换在同一个块中、变换不在层级中，且场景启用了批量积分
+     */
+    private boolean isBatchIntegrated() {
+        StorageSlot slot = storageSlot();
+        return slot != null && slot.getChunk().has(Archetype.TRANSFORM)
+                && (slot.getChunk().bodyFlags[slot.getRow()] & ArchetypeChunk.BODY_LINKED) == 0
+                && owner.getScene() != null && owner.getScene().isBatchPhysics();
+    }
+    
+    private int flags() {
+        TransformComponent transform = owner != null ? owner.getComponent(TransformComponent.class) : null;
+        return (enabled ? ArchetypeChunk.BODY_ENABLED : 0)
+                | (useGravity ? ArchetypeChunk.BODY_GRAVITY : 0)
+                | (transform != null && transform.isLinked() ? ArchetypeChunk.BODY_LINKED : 0);
+    }
+    
+    private void storeFlags() {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().bodyFlags[slot.getRow()] = flags();
+        }
+    }
+    
+    private StorageSlot storageSlot() {
+        if (owner == null) return null;
+        StorageSlot slot = owner.getStorageSlot();
+        return slot.isBound() && slot.getChunk().has(Archetype.PHYSICS) ? slot : null;
+    }
 }
@@ -2,16 +2,27 @@ package com.gameengine.components;
 
 import com.gameengine.core.Component;
 import com.gameengine.core.GameObject;
+import com.gameengine.ecs.Archetype;
+import com.gameengine.ecs.ArchetypeChunk;
+import com.gameengine.ecs.StorageSlot;
+import com.gameengine.ecs.StoredComponent;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.math.Vector2;
 
 /**
  * 渲染组件，负责对象的渲染
+ * 入库后尺寸和颜色存放在原型块的 width/height/color 列中
  */
-public class RenderComponent extends Component<RenderComponent> {
+public class RenderComponent extends Component<RenderComponent> implements StoredComponent {
     private Renderer renderer;
     private RenderType renderType;
     private Vector2 size;
+    // 渲染时复用的临时向量，render 只在渲染线程上调用
+    private final Vector2 renderPosition = new Vector2();
+    private final Vector2 renderSize = new Vector2();
+    // 入库后解包颜色的缓存（渲染和 getColor 共用），块中的打包值不变时复用
+    private Color renderColor;
+    private int renderRgba;
     private Color color;
     private boolean visible;
     
@@ -34,6 +45,25 @@ public class RenderComponent extends Component<RenderComponent> {
         public Color(float r, float g, float b) {
             this(r, g, b, 1.0f);
         }
+        
+        /**
+         * 打包为 RGBA 整数（每通道8位）
+         */
+        public int toRGBA() {
+            return (channel(r) << 24) | (channel(g) << 16) | (channel(b) << 8) | channel(a);
+        }
+        
+        /**
+         * 从 RGBA 整数解包
+         */
+        public static Color fromRGBA(int rgba) {
+            return new Color(((rgba >>> 24) & 0xFF) / 255.0f, ((rgba >>> 16) & 0xFF) / 255.0f,
+                             ((rgba >>> 8) & 0xFF) / 255.0f, (rgba & 0xFF) / 255.0f);
+        }
+        
+        private static int channel(float value) {
+            return Math.round(Math.max(0, Math.min(1, value)) * 255);
+        }
     }
     
     public RenderComponent() {
@@ -75,7 +105,9 @@ public class RenderComponent extends Component<RenderComponent> {
             return;
         }
         
-        Vector2 position = transform.getPosition();
+        Vector2 position = transform.getRenderPosition(renderPosition);
+        Vector2 size = getSize(renderSize);
+        Color color = renderColor();
         
         switch (renderType) {
             case RECTANGLE:
@@ -105,6 +137,12 @@ public class RenderComponent extends Component<RenderComponent> {
      * 设置颜色
      */
     public void setColor(Color color) {
+        markChanged();
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().color[slot.getRow()] = color.toRGBA();
+            return;
+        }
         this.color = color;
     }
     
@@ -112,20 +150,28 @@ public class RenderComponent extends Component<RenderComponent> {
      * 设置颜色
      */
     public void setColor(float r, float g, float b, float a) {
-        this.color = new Color(r, g, b, a);
+        setColor(new Color(r, g, b, a));
     }
     
     /**
      * 设置大小
      */
     public void setSize(Vector2 size) {
-        this.size = new Vector2(size);
+        markChanged();
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().width[slot.getRow()] = size.x;
+            slot.getChunk().height[slot.getRow()] = size.y;
+            return;
+        }
+        this.size.set(size);
     }
     
     /**
      * 设置可见性
      */
     public void setVisible(boolean visible) {
+        markChanged();
         this.visible = visible;
     }
     
@@ -135,14 +181,82 @@ public class RenderComponent extends Component<RenderComponent> {
     }
     
     public Vector2 getSize() {
-        return new Vector2(size);
+        return getSize(new Vector2());
+    }
+    
+    /**
+     * 把大小写入 out 并返回 out，不分配对象
+     */
+    public Vector2 getSize(Vector2 out) {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            return out.set(slot.getChunk().width[slot.getRow()], slot.getChunk().height[slot.getRow()]);
+        }
+        return out.set(size);
+    }
+    
+    public float getWidth() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().width[slot.getRow()] : size.x;
+    }
+    
+    public float getHeight() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().height[slot.getRow()] : size.y;
     }
     
+    /**
+     * 获取颜色：未入库时返回组件持有的颜色对象本身
+     * 入库后块中只存每通道8位的打包值，返回的是与渲染共用的解包缓存，不分配对象；
+     * 各通道是量化后的值（setColor(0.5f, ...) 之后读到 128/255），直接改它的字段不会写回，改颜色请用 setColor
+     */
     public Color getColor() {
-        return color;
+        return renderColor();
+    }
+    
+    /**
+     * 入库时块中存的是打包值，只在值变化时重新解包；渲染和录像都在游戏线程上调用
+     */
+    private Color renderColor() {
+        StorageSlot slot = storageSlot();
+        if (slot == null) {
+            return color;
+        }
+        int rgba = slot.getChunk().color[slot.getRow()];
+        if (renderColor == null || rgba != renderRgba) {
+            renderColor = Color.fromRGBA(rgba);
+            renderRgba = rgba;
+        }
+        return renderColor;
     }
     
     public boolean isVisible() {
         return visible;
     }
+    
+    @Override
+    public int storageColumns() {
+        return Archetype.RENDER;
+    }
+    
+    @Override
+    public void storeTo(ArchetypeChunk chunk, int row) {
+        chunk.width[row] = size.x;
+        chunk.height[row] = size.y;
+        chunk.color[row] = color.toRGBA();
+    }
+    
+    @Override
+    public void loadFrom(ArchetypeChunk chunk, int row) {
+        if (chunk.has(Archetype.RENDER)) {
+            this.size.set(chunk.width[row], chunk.height[row]);
+            this.color = Color.fromRGBA(chunk.color[row]);
+        }
+    }
+    
+    private StorageSlot storageSlot() {
+        if (owner == null) return null;
+        StorageSlot slot = owner.getStorageSlot();
+        return slot.isBound() && slot.getChunk().has(Archetype.RENDER) ? slot : null;
+    }
 }
@@ -2,15 +2,31 @@ package com.gameengine.components;
 
 import com.gameengine.core.Component;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.Interpolation;
+import com.gameengine.ecs.Archetype;
+import com.gameengine.ecs.ArchetypeChunk;
+import com.gameengine.ecs.StorageSlot;
+import com.gameengine.ecs.StoredComponent;
 import com.gameengine.math.Vector2;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * 变换组件，管理位置、旋转、缩放
+ * 入库后位置存放在原型块的 x/y 列中，上一模拟步的位置快照在 px/py 列中
+ * 可以挂到父变换下：此时 position 是相对父节点的偏移，世界位置按需计算并缓存，
+ * 只在祖先或自身被修改（标记为脏）后重新计算
  */
-public class TransformComponent extends Component<TransformComponent> {
+public class TransformComponent extends Component<TransformComponent> implements StoredComponent {
     private Vector2 position;
     private Vector2 scale;
     private float rotation;
+    private TransformComponent parent;
+    private List<TransformComponent> children;
+    private final Vector2 worldPosition = new Vector2();
+    private volatile boolean worldDirty = true;
     
     public TransformComponent() {
         this.position = new Vector2();
@@ -48,20 +64,35 @@ public class TransformComponent extends Component<TransformComponent> {
      * 移动到指定位置
      */
     public void moveTo(Vector2 newPosition) {
-        this.position = new Vector2(newPosition);
+        setPosition(newPosition);
     }
     
     /**
      * 移动相对距离
      */
     public void translate(Vector2 delta) {
-        this.position = position.add(delta);
+        translate(delta.x, delta.y);
+    }
+    
+    /**
+     * 移动相对距离
+     */
+    public void translate(float dx, float dy) {
+        markChanged();
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().x[slot.getRow()] += dx;
+            slot.getChunk().y[slot.getRow()] += dy;
+            return;
+        }
+        position.addLocal(dx, dy);
     }
     
     /**
      * 旋转指定角度
      */
     public void rotate(float angle) {
+        markChanged();
         this.rotation += angle;
     }
     
@@ -69,6 +100,7 @@ public class TransformComponent extends Component<TransformComponent> {
      * 设置旋转角度
      */
     public void setRotation(float angle) {
+        markChanged();
         this.rotation = angle;
     }
     
@@ -76,6 +108,7 @@ public class TransformComponent extends Component<TransformComponent> {
      * 缩放
      */
     public void scale(Vector2 scaleFactor) {
+        markChanged();
         this.scale = new Vector2(this.scale.x * scaleFactor.x, this.scale.y * scaleFactor.y);
     }
     
@@ -83,16 +116,222 @@ public class TransformComponent extends Component<TransformComponent> {
      * 设置缩放
      */
     public void setScale(Vector2 newScale) {
+        markChanged();
         this.scale = new Vector2(newScale);
     }
     
     // Getters and Setters
     public Vector2 getPosition() {
-        return new Vector2(position);
+        return getPosition(new Vector2());
+    }
+    
+    /**
+     * 把位置写入 out 并返回 out，不分配对象
+     */
+    public Vector2 getPosition(Vector2 out) {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            return out.set(slot.getChunk().x[slot.getRow()], slot.getChunk().y[slot.getRow()]);
+        }
+        return out.set(position);
+    }
+    
+    public float getX() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().x[slot.getRow()] : position.x;
+    }
+    
+    public float getY() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().y[slot.getRow()] : position.y;
+    }
+    
+    /**
+     * 上一模拟步结束时的位置（只读快照），可以与写入位置的系统并发读取
+     * 未入库时没有快照，返回当前位置
+     */
+    public Vector2 getPreviousPosition() {
+        return getPreviousPosition(new Vector2());
+    }
+    
+    /**
+     * 把上一模拟步的位置写入 out 并返回 out，不分配对象
+     */
+    public Vector2 getPreviousPosition(Vector2 out) {
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            return out.set(slot.getChunk().px[slot.getRow()], slot.getChunk().py[slot.getRow()]);
+        }
+        return out.set(position);
+    }
+    
+    public float getPreviousX() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().px[slot.getRow()] : position.x;
+    }
+    
+    public float getPreviousY() {
+        StorageSlot slot = storageSlot();
+        return slot != null ? slot.getChunk().py[slot.getRow()] : position.y;
     }
     
     public void setPosition(Vector2 position) {
-        this.position = new Vector2(position);
+        setPosition(position.x, position.y);
+    }
+    
+    public void setPosition(float x, float y) {
+        markChanged();
+        StorageSlot slot = storageSlot();
+        if (slot != null) {
+            slot.getChunk().x[slot.getRow()] = x;
+            slot.getChunk().y[slot.getRow()] = y;
+            return;
+        }
+        this.position.set(x, y);
+    }
+    
+    /**
+     * 世界位置：没有父节点时就是 position，否则为父节点世界位置加本地偏移
+     */
+    public Vector2 getWorldPosition() {
+        return getWorldPosition(new Vector2());
+    }
+    
+    /**
+     * 把世界位置写入 out 并返回 out，不分配对象
+     */
+    public Vector2 getWorldPosition(Vector2 out) {
+        if (parent == null) {
+            return getPosition(out);
+        }
+        if (worldDirty) {
+            Vector2 base = parent.getWorldPosition(out);
+            worldPosition.x = base.x + getX();
+            worldPosition.y = base.y + getY();
+            worldDirty = false;
+        }
+        return out.set(worldPosition);
+    }
+    
+    /**
+     * 渲染用的世界位置：固定步长模式下在上一模拟步与当前模拟步之间插值
+     */
+    public Vector2 getRenderPosition() {
+        return getRenderPosition(new Vector2());
+    }
+    
+    /**
+     * 把渲染用的世界位置写入 out 并返回 out，不分配对象
+     */
+    public Vector2 getRenderPosition(Vector2 out) {
+        float alpha = Interpolation.getAlpha();
+        if (alpha >= 1.0f) {
+            return getWorldPosition(out);
+        }
+        if (parent != null) {
+            Vector2 base = parent.getRenderPosition(out);
+            return out.set(base.x + getX(), base.y + getY());
+        }
+        StorageSlot slot = storageSlot();
+        if (slot == null) {
+            return getPosition(out);
+        }
+        ArchetypeChunk chunk = slot.getChunk();
+        int row = slot.getRow();
+        return out.set(chunk.px[row] + (chunk.x[row] - chunk.px[row]) * alpha,
+                chunk.py[row] + (chunk.y[row] - chunk.py[row]) * alpha);
+    }
+    
+    /**
+     * 设置父变换，传入null则脱离父节点
+     */
+    public void setParent(TransformComponent newParent) {
+        if (newParent == parent) return;
+        for (TransformComponent p = newParent; p != null; p = p.parent) {
+            if (p == this) {
+                throw new IllegalArgumentException("transform hierarchy cannot contain a cycle");
+            }
+        }
+        TransformComponent oldParent = parent;
+        if (oldParent != null) {
+            oldParent.children.remove(this);
+        }
+        parent = newParent;
+        if (newParent != null) {
+            if (newParent.children == null) {
+                newParent.children = new CopyOnWriteArrayList<>();
+            }
+            newParent.children.add(this);
+        }
+        markChanged();
+        storeLinked();
+        if (oldParent != null) {
+            oldParent.storeLinked();
+        }
+        if (newParent != null) {
+            newParent.storeLinked();
+        }
+    }
+    
+    /**
+     * 是否挂在层级中（有父节点或子节点）；这样的刚体移动时要让子树的世界位置失效，不参与批量积分
+     */
+    public boolean isLinked() {
+        return parent != null || (children != null && !children.isEmpty());
+    }
+    
+    /**
+     * 把层级状态写入物理列的标记位
+     */
+    private void storeLinked() {
+        StorageSlot slot = storageSlot();
+        if (slot == null || !slot.getChunk().has(Archetype.PHYSICS)) return;
+        int[] flags = slot.getChunk().bodyFlags;
+        int row = slot.getRow();
+        flags[row] = isLinked() ? flags[row] | ArchetypeChunk.BODY_LINKED : flags[row] & ~ArchetypeChunk.BODY_LINKED;
+    }
+    
+    /**
+     * 添加子变换
+     */
+    public TransformComponent addChild(TransformComponent child) {
+        child.setParent(this);
+        return child;
+    }
+    
+    public TransformComponent getParent() {
+        return parent;
+    }
+    
+    public List<TransformComponent> getChildren() {
+        return children == null ? Collections.emptyList() : Collections.unmodifiableList(children);
+    }
+    
+    /**
+     * 标记修改，同时让子树的世界位置缓存失效
+     */
+    @Override
+    public void markChanged() {
+        super.markChanged();
+        if (parent != null) {
+            worldDirty = true;
+        }
+        if (children != null) {
+            for (TransformComponent child : children) {
+                child.invalidateWorld();
+            }
+        }
+    }
+    
+    private void invalidateWorld() {
+        // 节点已脏时其子树必然也已脏
+        if (worldDirty) return;
+        worldDirty = true;
+        if (children != null) {
+            for (TransformComponent child : children) {
+                child.invalidateWorld();
+            }
+        }
     }
     
     public Vector2 getScale() {
@@ -102,4 +341,54 @@ public class TransformComponent extends Component<TransformComponent> {
     public float getRotation() {
         return rotation;
     }
+    
+    @Override
+    public int storageColumns() {
+        return Archetype.TRANSFORM;
+    }
+    
+    @Override
+    public void storeTo(ArchetypeChunk chunk, int row) {
+        chunk.x[row] = position.x;
+        chunk.y[row] = position.y;
+        chunk.px[row] = position.x;
+        chunk.py[row] = position.y;
+        if (chunk.has(Archetype.PHYSICS)) {
+            chunk.bodyFlags[row] = isLinked() ? chunk.bodyFlags[row] | ArchetypeChunk.BODY_LINKED
+                    : chunk.bodyFlags[row] & ~ArchetypeChunk.BODY_LINKED;
+        }
+    }
+    
+    @Override
+    public void loadFrom(ArchetypeChunk chunk, int row) {
+        if (chunk.has(Archetype.TRANSFORM)) {
+            this.position.set(chunk.x[row], chunk.y[row]);
+            if (chunk.has(Archetype.PHYSICS) && chunk.movedTick[row] > super.getChangedTick()) {
+                markChanged();
+            }
+        }
+    }
+    
+    /**
+     * 批量积分移动实体时只在块中记录变更计数，这里取两者中较新的一个
+     */
+    @Override
+    public int getChangedTick() {
+        StorageSlot slot = storageSlot();
+        if (slot != null && slot.getChunk().has(Archetype.PHYSICS)) {
+            return Math.max(super.getChangedTick(), slot.getChunk().movedTick[slot.getRow()]);
+        }
+        return super.getChangedTick();
+    }
+    
+    @Override
+    public boolean isChangedSince(int tick) {
+        return getChangedTick() >= tick;
+    }
+    
+    private StorageSlot storageSlot() {
+        if (owner == null) return null;
+        StorageSlot slot = owner.getStorageSlot();
+        return slot.isBound() && slot.getChunk().has(Archetype.TRANSFORM) ? slot : null;
+    }
 }
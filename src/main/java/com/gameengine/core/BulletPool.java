@@ -0,0 +1,171 @@
+package com.gameengine.core;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.graphics.Renderer;
+import com.gameengine.math.Vector2;
+
+import java.util.ArrayDeque;
+
+/**
+ * 子弹对象池，子弹移出场景后连同组件一起回收复用
+ */
+public class BulletPool {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final String tag;
+    private final int layer;
+    private final RenderComponent.Color color;
+    private final Renderer renderer;
+    private final int capacity;
+    private final ArrayDeque<Bullet> free;
+    private int liveCount;
+    private int highWaterMark;
+    private int allocatedCount;
+    private long reuseCount;
+    private long rejectedCount;
+
+    public BulletPool(String tag, int layer, RenderComponent.Color color, Renderer renderer) {
+        this(tag, layer, color, renderer, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param layer 子弹碰撞体所在的碰撞层
+     * @param capacity 同时存活的子弹上限，超出时 spawn 返回null
+     */
+    public BulletPool(String tag, int layer, RenderComponent.Color color, Renderer renderer, int capacity) {
+        this.tag = tag;
+        this.layer = layer;
+        this.color = color;
+        this.renderer = renderer;
+        this.capacity = capacity;
+        this.free = new ArrayDeque<>();
+    }
+
+    /**
+     * 取出一颗子弹并设置位置和速度，调用方负责加入场景
+     */
+    public synchronized Bullet spawn(Vector2 position, Vector2 velocity) {
+        if (liveCount >= capacity) {
+            rejectedCount++;
+            return null;
+        }
+        Bullet bullet = free.pollFirst();
+        if (bullet == null) {
+            bullet = new Bullet(this);
+            allocatedCount++;
+        } else {
+            reuseCount++;
+        }
+        liveCount++;
+        if (liveCount > highWaterMark) {
+            highWaterMark = liveCount;
+        }
+        bullet.reset(position, velocity);
+        return bullet;
+    }
+
+    /**
+     * 子弹移出场景时归还
+     */
+    synchronized void release(Bullet bullet) {
+        if (!bullet.pooled) {
+            bullet.pooled = true;
+            liveCount--;
+            free.addFirst(bullet);
+        }
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int getLiveCount() {
+        return liveCount;
+    }
+
+    public synchronized int getPooledCount() {
+        return free.size();
+    }
+
+    /**
+     * 同时存活子弹数的历史最大值
+     */
+    public synchronized int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public synchronized int getAllocatedCount() {
+        return allocatedCount;
+    }
+
+    public synchronized long getReuseCount() {
+        return reuseCount;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("BulletPool[%s live=%d pooled=%d highWater=%d allocated=%d reused=%d rejected=%d]",
+                tag, liveCount, free.size(), highWaterMark, allocatedCount, reuseCount, rejectedCount);
+    }
+
+    /**
+     * 池化的子弹，组件只在创建时添加一次
+     */
+    public static class Bullet extends GameObject {
+        private final BulletPool pool;
+        private final TransformComponent transform;
+        private final PhysicsComponent physics;
+        private boolean pooled;
+
+        private Bullet(BulletPool pool) {
+            super(pool.tag);
+            this.pool = pool;
+            this.transform = addComponent(new TransformComponent());
+            this.physics = addComponent(new PhysicsComponent(0.1f));
+            physics.setFriction(1.0f);
+            physics.setUseGravity(false);
+            RenderComponent render = addComponent(new RenderComponent(
+                RenderComponent.RenderType.CIRCLE,
+                new Vector2(4, 4),
+                pool.color
+            ));
+            render.setRenderer(pool.renderer);
+            ColliderComponent collider = addComponent(new ColliderComponent(
+                ColliderComponent.Shape.CIRCLE,
+                new Vector2(4, 4),
+                pool.layer
+            ));
+            collider.setDamage(1);
+        }
+
+        private void reset(Vector2 position, Vector2 velocity) {
+            if (pooled) {
+                renewId();
+            }
+            pooled = false;
+            setActive(true);
+            transform.setPosition(position);
+            physics.setVelocity(velocity);
+        }
+
+        @Override
+        public void onRemoved() {
+            pool.release(this);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.gameengine.core;
+
+/**
+ * 全局变更计数：引擎每帧推进一次，组件每次写入时记录当前值
+ * 据此可以询问"自第 N 次计数起被修改过"的组件
+ */
+public final class ChangeTick {
+    private static volatile int current = 1;
+
+    private ChangeTick() {
+    }
+
+    /**
+     * 当前计数
+     */
+    public static int current() {
+        return current;
+    }
+
+    /**
+     * 推进一次，只由游戏线程调用
+     */
+    public static int advance() {
+        return ++current;
+    }
+}
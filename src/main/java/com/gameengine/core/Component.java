@@ -8,10 +8,13 @@ public abstract class Component<T extends Component<T>> {
     protected GameObject owner;
     protected boolean enabled;
     protected String name;
+    // 最近一次写入时的变更计数
+    private int changedTick;
     
     public Component() {
         this.enabled = true;
         this.name = this.getClass().getSimpleName();
+        this.changedTick = ChangeTick.current();
     }
     
     /**
@@ -45,6 +48,27 @@ public abstract class Component<T extends Component<T>> {
         return (Class<T>) this.getClass();
     }
     
+    /**
+     * 标记组件数据已修改，记录当前变更计数
+     */
+    public void markChanged() {
+        changedTick = ChangeTick.current();
+    }
+    
+    /**
+     * 最近一次写入时的变更计数
+     */
+    public int getChangedTick() {
+        return changedTick;
+    }
+    
+    /**
+     * 是否在指定计数当时或之后被修改过
+     */
+    public boolean isChangedSince(int tick) {
+        return changedTick >= tick;
+    }
+    
     // Getters and Setters
     public GameObject getOwner() {
         return owner;
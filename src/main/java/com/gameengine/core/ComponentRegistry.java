@@ -0,0 +1,54 @@
+package com.gameengine.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 组件类型注册表，为每个组件类分配一个紧凑的整数ID
+ * 前64个ID同时对应签名位掩码中的一位
+ */
+public final class ComponentRegistry {
+    public static final int SIGNATURE_BITS = 64;
+
+    private static final AtomicInteger nextId = new AtomicInteger();
+    private static final ClassValue<Integer> ids = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextId.getAndIncrement();
+        }
+    };
+
+    private ComponentRegistry() {}
+
+    /**
+     * 获取组件类型的ID，首次访问时分配
+     */
+    public static int idOf(Class<?> componentType) {
+        return ids.get(componentType);
+    }
+
+    /**
+     * 获取组件类型对应的签名位，ID超出64时返回0
+     */
+    public static long bitOf(Class<?> componentType) {
+        int id = idOf(componentType);
+        return id < SIGNATURE_BITS ? 1L << id : 0L;
+    }
+
+    /**
+     * 计算一组组件类型的签名掩码
+     */
+    public static long maskOf(Class<?>... componentTypes) {
+        long mask = 0L;
+        for (Class<?> type : componentTypes) {
+            mask |= bitOf(type);
+        }
+        return mask;
+    }
+
+    /**
+     * 已注册的组件类型数量
+     */
+    public static int size() {
+        return nextId.get();
+    }
+}
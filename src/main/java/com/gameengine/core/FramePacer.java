@@ -0,0 +1,222 @@
+package com.gameengine.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 高精度帧节拍器：按 System.nanoTime 的绝对截止时间排帧，长误差不会累积
+ * 等待时先休眠到截止时间前一小段，再让出CPU自旋到截止时间，避开休眠精度不足带来的抖动
+ * 一帧的更新已经超过截止时间时跳过该帧的渲染，连续跳过的帧数有上限，保证画面仍会刷新
+ */
+public class FramePacer {
+    // 截止时间前改为自旋等待的时长
+    private static final long DEFAULT_SPIN_NANOS = 1_000_000L;
+    // 落后超过这么多帧时放弃追赶，从当前时间重新排帧
+    private static final int MAX_LAG_FRAMES = 5;
+
+    private long periodNanos;
+    private long spinNanos = DEFAULT_SPIN_NANOS;
+    private int maxSkippedFrames = 5;
+    private long nextDeadline;
+    private long lastFrameEnd;
+    private int consecutiveSkips;
+    private final Stats stats = new Stats();
+
+    /**
+     * 帧时间统计
+     */
+    public static final class Stats {
+        long frames;
+        long renderedFrames;
+        long skippedFrames;
+        long resyncs;
+        double lastFrameMillis;
+        double averageFrameMillis;
+        double minFrameMillis = Double.MAX_VALUE;
+        double maxFrameMillis;
+        double jitterMillis;
+
+        Stats copy() {
+            Stats s = new Stats();
+            s.frames = frames;
+            s.renderedFrames = renderedFrames;
+            s.skippedFrames = skippedFrames;
+            s.resyncs = resyncs;
+            s.lastFrameMillis = lastFrameMillis;
+            s.averageFrameMillis = averageFrameMillis;
+            s.minFrameMillis = minFrameMillis;
+            s.maxFrameMillis = maxFrameMillis;
+            s.jitterMillis = jitterMillis;
+            return s;
+        }
+
+        public long getFrames() {
+            return frames;
+        }
+
+        public long getRenderedFrames() {
+            return renderedFrames;
+        }
+
+        public long getSkippedFrames() {
+            return skippedFrames;
+        }
+
+        /**
+         * 因落后太多而重新排帧的次数
+         */
+        public long getResyncs() {
+            return resyncs;
+        }
+
+        public double getLastFrameMillis() {
+            return lastFrameMillis;
+        }
+
+        /**
+         * 帧时间的指数滑动平均
+         */
+        public double getAverageFrameMillis() {
+            return averageFrameMillis;
+        }
+
+        public double getMinFrameMillis() {
+            return frames == 0 ? 0 : minFrameMillis;
+        }
+
+        public double getMaxFrameMillis() {
+            return maxFrameMillis;
+        }
+
+        /**
+         * 帧时间与目标帧长之差的指数滑动平均
+         */
+        public double getJitterMillis() {
+            return jitterMillis;
+        }
+
+        public double getAverageFps() {
+            return averageFrameMillis > 0 ? 1000.0 / averageFrameMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Frames: %d (rendered %d, skipped %d, resyncs %d)  avg %.3f ms (%.1f FPS)  min %.3f  max %.3f  jitter %.3f ms",
+                    frames, renderedFrames, skippedFrames, resyncs, averageFrameMillis, getAverageFps(),
+                    getMinFrameMillis(), maxFrameMillis, jitterMillis);
+        }
+    }
+
+    public FramePacer(float targetFPS) {
+        setTargetFPS(targetFPS);
+        reset();
+    }
+
+    /**
+     * 设置目标帧率，下一帧开始生效
+     */
+    public synchronized void setTargetFPS(float targetFPS) {
+        this.periodNanos = Math.max(1L, Math.round(1_000_000_000.0 / targetFPS));
+    }
+
+    /**
+     * 从当前时间重新开始排帧（启动时或从空闲等待恢复后调用）
+     */
+    public synchronized void reset() {
+        long now = System.nanoTime();
+        nextDeadline = now + periodNanos;
+        lastFrameEnd = now;
+        consecutiveSkips = 0;
+    }
+
+    /**
+     * 本帧更新完成后调用：已经超过截止时间则跳过渲染（连续跳过不超过上限）
+     */
+    public synchronized boolean shouldRender() {
+        if (System.nanoTime() > nextDeadline && consecutiveSkips < maxSkippedFrames) {
+            consecutiveSkips++;
+            stats.skippedFrames++;
+            return false;
+        }
+        consecutiveSkips = 0;
+        stats.renderedFrames++;
+        return true;
+    }
+
+    /**
+     * 等待到本帧的截止时间，记录帧时间并排下一帧
+     * @return 等待期间被中断时返回false
+     */
+    public boolean awaitNextFrame() {
+        long deadline;
+        long spin;
+        synchronized (this) {
+            deadline = nextDeadline;
+            spin = spinNanos;
+        }
+        long remaining = deadline - System.nanoTime();
+        // 先休眠到截止时间前 spin 纳秒，剩下的时间让出CPU自旋
+        while (remaining > spin) {
+            LockSupport.parkNanos(remaining - spin);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            record(now - lastFrameEnd);
+            lastFrameEnd = now;
+            nextDeadline += periodNanos;
+            if (now - nextDeadline > MAX_LAG_FRAMES * periodNanos) {
+                // 落后太多，丢弃积压，避免之后长时间连续不等待
+                nextDeadline = now + periodNanos;
+                stats.resyncs++;
+            }
+        }
+        return true;
+    }
+
+    private void record(long frameNanos) {
+        double millis = frameNanos / 1_000_000.0;
+        double target = periodNanos / 1_000_000.0;
+        stats.frames++;
+        stats.lastFrameMillis = millis;
+        if (stats.frames == 1) {
+            stats.averageFrameMillis = millis;
+        } else {
+            stats.averageFrameMillis += (millis - stats.averageFrameMillis) * 0.05;
+        }
+        stats.jitterMillis += (Math.abs(millis - target) - stats.jitterMillis) * 0.05;
+        stats.minFrameMillis = Math.min(stats.minFrameMillis, millis);
+        stats.maxFrameMillis = Math.max(stats.maxFrameMillis, millis);
+    }
+
+    /**
+     * 当前统计的快照，可以从任意线程读取
+     */
+    public synchronized Stats getStats() {
+        return stats.copy();
+    }
+
+    /**
+     * 设置截止时间前自旋等待的时长（纳秒）；休眠精度差的平台可以调大
+     */
+    public synchronized void setSpinNanos(long spinNanos) {
+        this.spinNanos = Math.max(0, spinNanos);
+    }
+
+    /**
+     * 设置最多连续跳过的渲染帧数
+     */
+    public synchronized void setMaxSkippedFrames(int maxSkippedFrames) {
+        this.maxSkippedFrames = Math.max(0, maxSkippedFrames);
+    }
+
+    public synchronized float getTargetFPS() {
+        return (float) (1_000_000_000.0 / periodNanos);
+    }
+}
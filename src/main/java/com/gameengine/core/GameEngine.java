@@ -8,11 +8,6 @@ import com.gameengine.scene.Scene;
 
 import java.io.IOException;
 
-import javax.swing.Timer;
-import com.gameengine.recording.RecordingConfig;
-import com.gameengine.recording.RecordingService;
-import java.io.IOException;
-
 /**
  * 游戏引擎
  */
@@ -20,18 +15,34 @@ public class GameEngine {
     private Renderer renderer;
     private InputManager inputManager;
     private Scene currentScene;
-    private boolean running;
-    private float targetFPS;
+    private volatile boolean running;
+    private volatile float targetFPS;
     private float deltaTime;
     private long lastTime;
     private String title;
-    private Timer gameTimer;
+    private Thread gameThread;
     //用来计算帧率
     private long startTime = 0;
     private long frameCount = 0;
     private final int screenWidth;
     private final int screenHeight;
     private RecordingService recordingService;
+    // 固定步长模拟
+    private boolean fixedTimestep;
+    private float tickRate = 60.0f;
+    private int maxCatchUpSteps = 5;
+    private float accumulator;
+    // 引擎共享的并行执行器，所有场景和系统共用，引擎停止时关闭
+    private final ParallelExecutor parallel;
+    // 引擎共享的阻塞I/O执行器，完成回调在游戏线程上执行
+    private final IoExecutor io;
+    // 空闲场景没有事件时的最长等待时间（兜底，正常由事件唤醒）
+    private static final long IDLE_WAIT_MILLIS = 1000;
+    // 从空闲等待中恢复，下一帧按一个标准帧长推进而不是按等待的时长
+    private boolean resumeFromIdle;
+    // 帧节拍：默认用高精度节拍器，关闭时退回到按剩余时间休眠
+    private final FramePacer pacer;
+    private volatile boolean precisePacing = true;
     public long getStartTime() {
         return startTime;
     }
@@ -48,6 +59,10 @@ public class GameEngine {
         this.targetFPS = 60.0f;
         this.deltaTime = 0.0f;
         this.lastTime = System.nanoTime();
+        this.pacer = new FramePacer(targetFPS);
+        this.parallel = new ParallelExecutor();
+        this.io = new IoExecutor();
+        this.io.setWakeHandler(inputManager::wakeUp);
     }
     
     /**
@@ -69,23 +84,70 @@ public class GameEngine {
         running = true;
         // 记录开始时间
         startTime = System.nanoTime();
+        lastTime = startTime;
+        accumulator = 0;
         
         // 初始化当前场景
         if (currentScene != null) {
             currentScene.initialize();
         }
         
-        // 创建游戏循环定时器
-        gameTimer = new Timer((int) (1000 / targetFPS), e -> {
-            if (running) {
+        // 在独立的游戏线程上运行模拟和绘制列表生成，EDT只负责输入分发和绘制
+        gameThread = new Thread(this::gameLoop, "game-loop");
+        gameThread.start();
+    }
+    
+    /**
+     * 游戏循环：更新、生成绘制列表并发布，然后等待到下一帧
+     * 当前场景可以空闲时，没有输入事件、场景失效或I/O回调就阻塞等待，不更新也不重绘
+     */
+    private void gameLoop() {
+        long seenEvents = inputManager.getEventCount();
+        pacer.reset();
+        while (running) {
+            Scene scene = currentScene;
+            if (scene != null && scene.isIdleCapable() && !scene.consumeInvalidation() && !io.hasPendingCallbacks()) {
+                try {
+                    if (!inputManager.awaitEvent(seenEvents, IDLE_WAIT_MILLIS)) {
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                resumeFromIdle = true;
+                pacer.reset();
+            }
+            // 本帧开始之后到达的事件会让下一次检查立即返回
+            seenEvents = inputManager.getEventCount();
+            long frameStart = System.nanoTime();
+            try {
                 update();
-                render();
-                //记录帧数
-                frameCount++;
+                // 过载时节拍器跳过渲染，只保留模拟
+                if (running && (!precisePacing || pacer.shouldRender())) {
+                    render();
+                    //记录帧数
+                    frameCount++;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-        });
-        
-        gameTimer.start();
+            if (precisePacing) {
+                if (!pacer.awaitNextFrame()) {
+                    break;
+                }
+                continue;
+            }
+            long remaining = (long) (1_000_000_000L / targetFPS) - (System.nanoTime() - frameStart);
+            if (remaining > 0) {
+                try {
+                    Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
     }
     
     /**
@@ -94,25 +156,47 @@ public class GameEngine {
     private void update() {
         // 计算时间间隔
         long currentTime = System.nanoTime();
-        deltaTime = (currentTime - lastTime) / 1_000_000_000.0f;
+        float frameTime = (currentTime - lastTime) / 1_000_000_000.0f;
         lastTime = currentTime;
+        if (resumeFromIdle) {
+            // 空闲期间没有模拟，唤醒后只推进一个标准帧长
+            frameTime = fixedTimestep ? 1.0f / tickRate : 1.0f / targetFPS;
+            accumulator = 0;
+            resumeFromIdle = false;
+        }
         
         // 先处理事件（填充justPressedKeys）
         renderer.pollEvents();
         
-        // 录像更新（捕获本帧输入 + 关键帧）
-        if (recordingService != null && recordingService.isRecording()) {
-            recordingService.update(deltaTime, currentScene, inputManager);
-        }
+        // 执行已完成的I/O任务回调
+        io.drainCallbacks();
         
-        // 更新场景（这里会处理按钮的输入检测）
-        if (currentScene != null) {
-            currentScene.update(deltaTime);
+        if (!fixedTimestep) {
+            deltaTime = frameTime;
+            Interpolation.setAlpha(1.0f);
+            step(deltaTime);
+            // 清空瞬态输入（为下一帧准备）——现在移到场景更新之后
+            inputManager.update();
+        } else {
+            // 固定步长：按累积的真实时间推进若干个模拟步，每帧最多追赶 maxCatchUpSteps 步
+            float tick = 1.0f / tickRate;
+            deltaTime = tick;
+            accumulator += frameTime;
+            int steps = 0;
+            while (accumulator >= tick && steps < maxCatchUpSteps) {
+                step(tick);
+                // 瞬态输入只对本帧的第一个模拟步可见；没有模拟步时保留到下一帧
+                inputManager.update();
+                accumulator -= tick;
+                steps++;
+            }
+            if (accumulator >= tick) {
+                // 追赶步数用尽，丢弃积压的时间，避免越落越远
+                accumulator %= tick;
+            }
+            Interpolation.setAlpha(accumulator / tick);
         }
         
-        // 清空瞬态输入（为下一帧准备）——现在移到场景更新之后
-        inputManager.update();
-        
         // 检查退出条件
         if (inputManager.isKeyPressed(27)) {  // ESC
             stop();
@@ -122,6 +206,29 @@ public class GameEngine {
         }
     }
     
+    /**
+     * 推进一个模拟步
+     */
+    private void step(float dt) {
+        // 推进变更计数，本步的组件写入都记为这一计数
+        ChangeTick.advance();
+        
+        // 交换位置/速度双缓冲，本步的并行系统读取上一步结束时的快照
+        if (currentScene != null) {
+            currentScene.getStorage().swapBuffers();
+        }
+        
+        // 录像更新（捕获本步输入 + 关键帧）
+        if (recordingService != null && recordingService.isRecording()) {
+            recordingService.update(dt, currentScene, inputManager);
+        }
+        
+        // 更新场景（这里会处理按钮的输入检测）
+        if (currentScene != null) {
+            currentScene.update(dt);
+        }
+    }
+    
     /**
      * 渲染游戏
      */
@@ -141,6 +248,10 @@ public class GameEngine {
      */
     public void setScene(Scene scene) {
         this.currentScene = scene;
+        // 场景的批量积分使用引擎共享的并行执行器
+        if (scene != null) {
+            scene.setParallel(parallel);
+        }
         if (scene != null && running) {
             scene.initialize();
         }
@@ -162,8 +273,15 @@ public class GameEngine {
         recordingService = null;
         }
         running = false;
-        if (gameTimer != null) {
-            gameTimer.stop();
+        // 唤醒可能在空闲等待中的游戏线程
+        inputManager.wakeUp();
+        // 从其他线程停止时等待当前帧结束，再清理场景
+        if (gameThread != null && Thread.currentThread() != gameThread) {
+            try {
+                gameThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
         cleanup();
     }
@@ -175,6 +293,8 @@ public class GameEngine {
         if (currentScene != null) {
             currentScene.clear();
         }
+        parallel.shutdown();
+        io.shutdown();
         renderer.cleanup();
     }
     
@@ -188,6 +308,20 @@ public class GameEngine {
         return renderer;
     }
     
+    /**
+     * 获取引擎共享的并行执行器
+     */
+    public ParallelExecutor getParallel() {
+        return parallel;
+    }
+    
+    /**
+     * 获取引擎共享的I/O执行器
+     */
+    public IoExecutor getIo() {
+        return io;
+    }
+    
     /**
      * 获取输入管理器
      */
@@ -207,9 +341,21 @@ public class GameEngine {
      */
     public void setTargetFPS(float fps) {
         this.targetFPS = fps;
-        if (gameTimer != null) {
-            gameTimer.setDelay((int) (1000 / fps));
-        }
+        pacer.setTargetFPS(fps);
+    }
+    
+    /**
+     * 选择帧节拍方式：true 使用高精度节拍器（默认），false 按剩余时间休眠
+     */
+    public void setPreciseFramePacing(boolean precisePacing) {
+        this.precisePacing = precisePacing;
+    }
+    
+    /**
+     * 获取帧节拍器（帧时间统计）
+     */
+    public FramePacer getFramePacer() {
+        return pacer;
     }
     
     /**
@@ -219,6 +365,41 @@ public class GameEngine {
         return targetFPS;
     }
     
+    /**
+     * 启用/禁用固定步长模拟；禁用时每帧用真实的时间间隔更新一次
+     */
+    public void setFixedTimestep(boolean fixedTimestep) {
+        this.fixedTimestep = fixedTimestep;
+        this.accumulator = 0;
+        Interpolation.setAlpha(1.0f);
+    }
+    
+    public boolean isFixedTimestep() {
+        return fixedTimestep;
+    }
+    
+    /**
+     * 设置模拟频率（每秒模拟步数），与渲染帧率无关
+     */
+    public void setTickRate(float tickRate) {
+        this.tickRate = Math.max(1.0f, tickRate);
+    }
+    
+    public float getTickRate() {
+        return tickRate;
+    }
+    
+    /**
+     * 设置每帧最多追赶的模拟步数
+     */
+    public void setMaxCatchUpSteps(int maxCatchUpSteps) {
+        this.maxCatchUpSteps = Math.max(1, maxCatchUpSteps);
+    }
+    
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+    
     /**
      * 检查引擎是否正在运行
      */
@@ -233,7 +414,7 @@ public class GameEngine {
             return;  // Already recording
         }
         RecordingConfig config = new RecordingConfig(outputPath);
-        recordingService = new RecordingService(config);
+        recordingService = new RecordingService(config, io);
         if (currentScene == null) {
             throw new IllegalStateException("Cannot start recording: no scene set");
         }
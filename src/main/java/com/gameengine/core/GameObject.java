@@ -1,21 +1,39 @@
 // Modified GameObject.java to add unique ID
 package com.gameengine.core;
 
+import com.gameengine.ecs.EntityHandle;
+import com.gameengine.ecs.StorageSlot;
+import com.gameengine.ecs.StoredComponent;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GameObject {
     protected boolean active;
     protected String name;
     protected final List<Component<?>> components;
-    private static long nextId = 0;
-    private final long id;
+    // 唯一ID，对象可能在工作线程上创建，用原子计数分配
+    private static final AtomicLong nextId = new AtomicLong();
+    private long id;
+    // 实体句柄，加入场景时分配，移出场景时回收
+    private int handle;
+    private final StorageSlot storageSlot;
+    // 按组件类型ID索引的槽位，以及对应的签名位掩码
+    private Component<?>[] slots;
+    private long signature;
+    private Scene scene;
+    private int sceneIndex = -1;
     
     public GameObject() {
-        this.id = nextId++;
+        this.id = nextId.getAndIncrement();
+        this.handle = EntityHandle.NONE;
         this.active = true;
         this.name = "GameObject";
         this.components = new ArrayList<>();
+        this.storageSlot = new StorageSlot();
+        this.slots = new Component<?>[Math.max(8, ComponentRegistry.size())];
+        this.signature = 0L;
     }
     
     public GameObject(String name) {
@@ -23,9 +41,30 @@ public class GameObject {
         this.name = name;
     }
     
+    /**
+     * 唯一ID，不随句柄回收而重复，录像用它标识实体
+     */
     public long getId() {
         return id;
     }
+
+    /**
+     * 分配新的唯一ID，对象池复用对象时调用，复用后在录像中是一个新实体
+     */
+    void renewId() {
+        this.id = nextId.getAndIncrement();
+    }
+    
+    /**
+     * 获取实体句柄，未加入场景时为 EntityHandle.NONE
+     */
+    public int getHandle() {
+        return handle;
+    }
+    
+    public void setHandle(int handle) {
+        this.handle = handle;
+    }
     
     // Rest of the class remains the same
     public void update(float deltaTime) {
@@ -40,38 +79,108 @@ public class GameObject {
         // 子类可以重写此方法进行初始化
     }
     
+    /**
+     * 对象移出场景后调用，子类可以重写此方法回收资源
+     */
+    public void onRemoved() {
+    }
+    
     public void destroy() {
         this.active = false;
         for (Component<?> component : components) {
             component.destroy();
         }
         components.clear();
+        Arrays.fill(slots, null);
+        signature = 0L;
     }
     
     public <T extends Component<T>> T addComponent(T component) {
         component.setOwner(this);
         components.add(component);
+        index(component);
         component.initialize();
+        // 已在场景中的对象组件组合变化时，通知场景迁移原型并刷新查询
+        if (scene != null) {
+            scene.onObjectChanged(this);
+        }
+        return component;
+    }
+    
+    /**
+     * 移除指定类型的组件，返回被移除的组件（没有则为null）
+     */
+    public <T extends Component<T>> T removeComponent(Class<T> componentType) {
+        T component = getComponent(componentType);
+        if (component == null) {
+            return null;
+        }
+        // 入库的组件先把数据写回自身字段，再脱离实体
+        if (component instanceof StoredComponent && storageSlot.isBound()) {
+            ((StoredComponent) component).loadFrom(storageSlot.getChunk(), storageSlot.getRow());
+        }
+        components.remove(component);
+        component.setOwner(null);
+        Arrays.fill(slots, null);
+        signature = 0L;
+        for (Component<?> remaining : components) {
+            index(remaining);
+        }
+        if (scene != null) {
+            scene.onObjectChanged(this);
+        }
         return component;
     }
     
     @SuppressWarnings("unchecked")
     public <T extends Component<T>> T getComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return (T) component;
-            }
-        }
-        return null;
+        int id = ComponentRegistry.idOf(componentType);
+        return id < slots.length ? (T) slots[id] : null;
     }
     
     public <T extends Component<T>> boolean hasComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return true;
+        int id = ComponentRegistry.idOf(componentType);
+        if (id < ComponentRegistry.SIGNATURE_BITS) {
+            return (signature & (1L << id)) != 0;
+        }
+        return id < slots.length && slots[id] != null;
+    }
+    
+    /**
+     * 获取组件签名位掩码
+     */
+    public long getSignature() {
+        return signature;
+    }
+    
+    /**
+     * 把组件登记到它的类型及各级父类型的槽位中，保持与按 isInstance 查找相同的语义
+     */
+    private void index(Component<?> component) {
+        for (Class<?> type = component.getClass(); type != Component.class && type != null; type = type.getSuperclass()) {
+            int id = ComponentRegistry.idOf(type);
+            if (id >= slots.length) {
+                slots = Arrays.copyOf(slots, Math.max(id + 1, slots.length * 2));
+            }
+            // 与线性查找一致，先添加的组件优先
+            if (slots[id] == null) {
+                slots[id] = component;
+                if (id < ComponentRegistry.SIGNATURE_BITS) {
+                    signature |= 1L << id;
+                }
             }
         }
-        return false;
+    }
+    
+    public List<Component<?>> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+    
+    /**
+     * 获取实体在原型存储中的位置
+     */
+    public StorageSlot getStorageSlot() {
+        return storageSlot;
     }
     
     public void updateComponents(float deltaTime) {
@@ -104,5 +213,33 @@ public class GameObject {
     
     public void setName(String name) {
         this.name = name;
+        if (scene != null) {
+            scene.onObjectChanged(this);
+        }
+    }
+    
+    /**
+     * 获取对象所在的场景，未加入场景时为null
+     */
+    public Scene getScene() {
+        return scene;
+    }
+    
+    /**
+     * 由场景在对象加入/移出时调用
+     */
+    public void setScene(Scene scene) {
+        this.scene = scene;
+    }
+    
+    /**
+     * 对象在场景对象列表中的下标，用于O(1)交换删除
+     */
+    public int getSceneIndex() {
+        return sceneIndex;
+    }
+    
+    public void setSceneIndex(int sceneIndex) {
+        this.sceneIndex = sceneIndex;
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.gameengine.core;
+
+/**
+ * 渲染插值系数：固定步长模式下表示当前帧处于上一模拟步与当前模拟步之间的位置
+ * 取值 [0, 1)，非固定步长模式下恒为1（直接使用当前状态）
+ */
+public final class Interpolation {
+    private static volatile float alpha = 1.0f;
+
+    private Interpolation() {
+    }
+
+    public static float getAlpha() {
+        return alpha;
+    }
+
+    public static void setAlpha(float value) {
+        alpha = value;
+    }
+}
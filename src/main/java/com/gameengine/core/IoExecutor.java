@@ -0,0 +1,135 @@
+package com.gameengine.core;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 引擎共享的阻塞I/O执行器：文件读写、目录列举等都提交到这里，不占用帧循环
+ * 运行时支持虚拟线程（Java 21+）时每个任务一个虚拟线程，否则退回到守护线程的缓存线程池
+ * 完成回调不在I/O线程上执行，而是排队，由游戏线程在帧开始时统一执行
+ */
+public class IoExecutor {
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Queue<Runnable> gameThreadCallbacks;
+    private volatile Runnable wakeHandler;
+
+    public IoExecutor() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newDaemonPool();
+        this.gameThreadCallbacks = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，编译和运行都不依赖 Java 21
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newDaemonPool() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "io-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 在I/O线程上执行阻塞任务
+     */
+    public Future<?> execute(Runnable task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * 在I/O线程上执行任务，成功或失败的回调交给游戏线程执行
+     */
+    public <T> Future<?> submit(Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        return executor.submit(() -> {
+            try {
+                T result = task.call();
+                runOnGameThread(() -> onSuccess.accept(result));
+            } catch (Exception e) {
+                runOnGameThread(() -> onError.accept(e));
+            }
+        });
+    }
+
+    /**
+     * 排队一个回调，在游戏线程下一次 drainCallbacks 时执行
+     */
+    public void runOnGameThread(Runnable callback) {
+        gameThreadCallbacks.add(callback);
+        Runnable handler = wakeHandler;
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+    /**
+     * 设置回调入队时的唤醒动作（游戏线程空闲等待时用来唤醒它）
+     */
+    public void setWakeHandler(Runnable wakeHandler) {
+        this.wakeHandler = wakeHandler;
+    }
+
+    /**
+     * 由游戏线程每帧调用，执行已完成任务的回调
+     */
+    public void drainCallbacks() {
+        Runnable callback;
+        while ((callback = gameThreadCallbacks.poll()) != null) {
+            try {
+                callback.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 是否有等待游戏线程执行的回调
+     */
+    public boolean hasPendingCallbacks() {
+        return !gameThreadCallbacks.isEmpty();
+    }
+
+    /**
+     * 是否使用虚拟线程
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * 关闭执行器，等待正在进行的写入完成
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        gameThreadCallbacks.clear();
+    }
+}
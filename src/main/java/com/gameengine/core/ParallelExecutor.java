@@ -0,0 +1,186 @@
+package com.gameengine.core;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+/**
+ * 引擎共享的并行执行器，基于 ForkJoin 工作窃取
+ * 区间递归二分直到达到粒度；粒度随输入规模和并行度自适应，
+ * 工作线程已有足够积压任务时提前停止拆分；输入很小时直接在调用线程顺序执行
+ */
+public class ParallelExecutor implements Executor {
+    /** 默认的顺序执行阈值（元素个数），不超过时不拆分 */
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 256;
+    // 每个工作线程大约分到的叶子任务数
+    private static final int LEAVES_PER_WORKER = 8;
+    // 当前线程积压的可窃取任务超过该值时不再拆分
+    private static final int SURPLUS_THRESHOLD = 2;
+
+    /**
+     * 处理区间 [from, to)
+     */
+    @FunctionalInterface
+    public interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /**
+     * 把区间 [from, to) 归约为一个结果
+     */
+    @FunctionalInterface
+    public interface RangeReducer<R> {
+        R reduce(int from, int to);
+    }
+
+    private final ForkJoinPool pool;
+
+    public ParallelExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelExecutor(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("parallel-worker-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    /**
+     * 并行处理 [start, end)，使用默认的顺序执行阈值
+     */
+    public void parallelFor(int start, int end, RangeBody body) {
+        parallelFor(start, end, DEFAULT_SEQUENTIAL_CUTOFF, body);
+    }
+
+    /**
+     * 并行处理 [start, end)；元素个数不超过 sequentialCutoff 时在调用线程顺序执行，
+     * 单个元素开销大时传入较小的阈值。各叶子区间互不重叠且 from 唯一，可用作确定性的批次号
+     */
+    public void parallelFor(int start, int end, int sequentialCutoff, RangeBody body) {
+        int n = end - start;
+        if (n <= 0) return;
+        if (n <= sequentialCutoff || pool.isShutdown()) {
+            body.run(start, end);
+            return;
+        }
+        pool.invoke(new ForTask(start, end, grainFor(n, sequentialCutoff), body));
+    }
+
+    /**
+     * 并行归约 [start, end)，使用默认的顺序执行阈值
+     */
+    public <R> R parallelReduce(int start, int end, RangeReducer<R> reducer, BinaryOperator<R> combiner) {
+        return parallelReduce(start, end, DEFAULT_SEQUENTIAL_CUTOFF, reducer, combiner);
+    }
+
+    /**
+     * 并行归约 [start, end)；子结果总是按 combiner(左, 右) 的顺序合并，结果与线程调度无关
+     */
+    public <R> R parallelReduce(int start, int end, int sequentialCutoff, RangeReducer<R> reducer, BinaryOperator<R> combiner) {
+        int n = end - start;
+        if (n <= sequentialCutoff || pool.isShutdown()) {
+            return reducer.reduce(start, Math.max(start, end));
+        }
+        return pool.invoke(new ReduceTask<>(start, end, grainFor(n, sequentialCutoff), reducer, combiner));
+    }
+
+    private int grainFor(int n, int sequentialCutoff) {
+        int byWorkers = n / (pool.getParallelism() * LEAVES_PER_WORKER);
+        return Math.max(1, Math.max(byWorkers, sequentialCutoff / LEAVES_PER_WORKER));
+    }
+
+    /**
+     * 在工作线程上异步执行任务（供系统调度器等使用）
+     */
+    @Override
+    public void execute(Runnable command) {
+        pool.execute(command);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 关闭工作线程
+     */
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    private static final class ForTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int grain;
+        private final RangeBody body;
+
+        ForTask(int start, int end, int grain, RangeBody body) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= grain || getSurplusQueuedTaskCount() > SURPLUS_THRESHOLD) {
+                body.run(start, end);
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new ForTask(start, mid, grain, body), new ForTask(mid, end, grain, body));
+        }
+    }
+
+    private static final class ReduceTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int grain;
+        private final RangeReducer<R> reducer;
+        private final BinaryOperator<R> combiner;
+
+        ReduceTask(int start, int end, int grain, RangeReducer<R> reducer, BinaryOperator<R> combiner) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.reducer = reducer;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if (end - start <= grain || getSurplusQueuedTaskCount() > SURPLUS_THRESHOLD) {
+                return reducer.reduce(start, end);
+            }
+            int mid = (start + end) >>> 1;
+            ReduceTask<R> left = new ReduceTask<>(start, mid, grain, reducer, combiner);
+            ReduceTask<R> right = new ReduceTask<>(mid, end, grain, reducer, combiner);
+            left.fork();
+            R rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
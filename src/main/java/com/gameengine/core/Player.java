@@ -1,6 +1,7 @@
 // New Player.java (extracted from original anonymous GameObject)
 package com.gameengine.core;
 
+import com.gameengine.components.ColliderComponent;
 import com.gameengine.components.HealthComponent;
 import com.gameengine.components.PhysicsComponent;
 import com.gameengine.components.TransformComponent;
@@ -8,35 +9,43 @@ import com.gameengine.graphics.Renderer;
 import com.gameengine.math.Vector2;
 
 public class Player extends GameObject {
+    // 身体各部分：相对玩家位置的偏移、尺寸和颜色
+    private static final float[][] PARTS = {
+        {-8, -10, 16, 20, 1.0f, 0.0f, 0.0f},
+        {-6, -22, 12, 12, 1.0f, 0.5f, 0.0f},
+        {-13, -5, 6, 12, 1.0f, 0.8f, 0.0f},
+        {7, -5, 6, 12, 0.0f, 1.0f, 0.0f}
+    };
+
     private Renderer renderer;
-    private Vector2 basePosition;
+    // 身体部分作为玩家变换的子节点，不是场景实体
+    private final TransformComponent[] parts;
+    // 渲染时复用的位置向量
+    private final Vector2 partPosition = new Vector2();
 
     public Player(Renderer renderer) {
         super("Player");
         this.renderer = renderer;
-        addComponent(new TransformComponent(new Vector2(400, 300)));
+        TransformComponent transform = addComponent(new TransformComponent(new Vector2(400, 300)));
         PhysicsComponent physics = addComponent(new PhysicsComponent(1.0f));
         physics.setFriction(0.95f);
         HealthComponent health = addComponent(new HealthComponent(1000));
         health.setRenderer(renderer);
-    }
-
-    @Override
-    public void update(float deltaTime) {
-        super.update(deltaTime);
-        TransformComponent transform = getComponent(TransformComponent.class);
-        if (transform != null) {
-            basePosition = transform.getPosition();
+        // 碰撞圆心在位置右下方 (10, 10) 处，半径 10
+        addComponent(new ColliderComponent(ColliderComponent.Shape.CIRCLE, new Vector2(20, 20), ColliderComponent.LAYER_PLAYER));
+        this.parts = new TransformComponent[PARTS.length];
+        for (int i = 0; i < PARTS.length; i++) {
+            parts[i] = transform.addChild(new TransformComponent(new Vector2(PARTS[i][0], PARTS[i][1])));
         }
     }
 
     @Override
     public void render() {
-        if (basePosition == null) return;
-        renderer.drawRect(basePosition.x - 8, basePosition.y - 10, 16, 20, 1.0f, 0.0f, 0.0f, 1.0f);
-        renderer.drawRect(basePosition.x - 6, basePosition.y - 22, 12, 12, 1.0f, 0.5f, 0.0f, 1.0f);
-        renderer.drawRect(basePosition.x - 13, basePosition.y - 5, 6, 12, 1.0f, 0.8f, 0.0f, 1.0f);
-        renderer.drawRect(basePosition.x + 7, basePosition.y - 5, 6, 12, 0.0f, 1.0f, 0.0f, 1.0f);
+        for (int i = 0; i < parts.length; i++) {
+            Vector2 pos = parts[i].getRenderPosition(partPosition);
+            float[] part = PARTS[i];
+            renderer.drawRect(pos.x, pos.y, part[2], part[3], part[4], part[5], part[6], 1.0f);
+        }
         super.render();
     }
 }
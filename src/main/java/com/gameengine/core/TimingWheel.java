@@ -0,0 +1,261 @@
+package com.gameengine.core;
+
+import com.gameengine.ecs.EntityHandle;
+import com.gameengine.ecs.EntityRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮：游戏计时器的调度服务
+ * 时间离散为固定长度的刻度，4 层各 64 个槽，近期的计时器放在底层，远期的放在高层，
+ * 底层转完一圈时把上一层对应槽里的计时器下放；调度和取消都是 O(1) 的链表操作，
+ * 推进一刻只检查一个槽，没有计时器到期的帧几乎没有开销
+ * 计时器可以绑定实体：实体移出场景后计时器在下一次到期时自动丢弃，不需要手动清理
+ */
+public class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // 能直接放入的最大延迟（刻），更远的先放在最高层，下放时重新计算
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * 一个计时器，取消和查询状态都是 O(1)
+     */
+    public final class Timer {
+        private final Runnable callback;
+        private final long period;
+        private final GameObject owner;
+        private int ownerHandle;
+        private long expires;
+        private Timer prev;
+        private Timer next;
+        private boolean pending;
+
+        private Timer(Runnable callback, long period, GameObject owner) {
+            this.callback = callback;
+            this.period = period;
+            this.owner = owner;
+            this.ownerHandle = EntityHandle.NONE;
+        }
+
+        /**
+         * 取消计时器，已到期或已取消时返回false
+         */
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (!pending) return false;
+                unlink(this);
+                size--;
+                return true;
+            }
+        }
+
+        /**
+         * 是否还在等待到期（周期计时器在取消或绑定的实体移除前一直为true）
+         */
+        public boolean isPending() {
+            synchronized (TimingWheel.this) {
+                return pending;
+            }
+        }
+
+        /**
+         * 距下一次到期的剩余时间（秒），不在等待时为0
+         */
+        public float getRemaining() {
+            synchronized (TimingWheel.this) {
+                return pending ? (expires - currentTick) / ticksPerSecond : 0;
+            }
+        }
+
+        public GameObject getOwner() {
+            return owner;
+        }
+
+        /**
+         * 绑定的实体是否仍然存活；第一次看到实体存活时记下它的句柄
+         */
+        private boolean ownerAlive() {
+            if (owner == null) return true;
+            EntityRegistry registry = EntityRegistry.getInstance();
+            if (ownerHandle == EntityHandle.NONE) {
+                if (registry.resolve(owner.getHandle()) != owner) return false;
+                ownerHandle = owner.getHandle();
+            }
+            return registry.resolve(ownerHandle) == owner;
+        }
+    }
+
+    private final float ticksPerSecond;
+    private final long tickNanos;
+    // 每层每个槽是一个带哨兵的双向循环链表
+    private final Timer[][] wheels;
+    private final List<Timer> due = new ArrayList<>();
+    private long currentTick;
+    private long pendingNanos;
+    private int size;
+
+    /**
+     * @param ticksPerSecond 每秒的刻度数，即计时精度
+     */
+    public TimingWheel(float ticksPerSecond) {
+        this.ticksPerSecond = ticksPerSecond;
+        this.tickNanos = Math.max(1L, Math.round(1_000_000_000.0 / ticksPerSecond));
+        this.wheels = new Timer[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timer sentinel = new Timer(null, 0, null);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                wheels[level][slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * 延迟 delay 秒后执行一次
+     */
+    public Timer schedule(float delay, Runnable callback) {
+        return add(null, delay, 0, callback);
+    }
+
+    /**
+     * 每隔 interval 秒执行一次，第一次在 interval 秒后
+     */
+    public Timer schedulePeriodic(float interval, Runnable callback) {
+        return add(null, interval, toTicks(interval), callback);
+    }
+
+    /**
+     * 绑定实体的单次计时器，实体移出场景后不再执行
+     */
+    public Timer schedule(GameObject owner, float delay, Runnable callback) {
+        return add(owner, delay, 0, callback);
+    }
+
+    /**
+     * 绑定实体的周期计时器，实体移出场景后自动丢弃
+     */
+    public Timer schedulePeriodic(GameObject owner, float interval, Runnable callback) {
+        return add(owner, interval, toTicks(interval), callback);
+    }
+
+    private synchronized Timer add(GameObject owner, float delay, long period, Runnable callback) {
+        Timer timer = new Timer(callback, period, owner);
+        timer.expires = currentTick + toTicks(delay);
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    private long toTicks(float seconds) {
+        return Math.max(1L, Math.round(seconds * ticksPerSecond));
+    }
+
+    /**
+     * 推进时间，按到期顺序执行回调；回调在调用线程上、锁外执行，可以再调度或取消计时器
+     */
+    public void advance(float deltaTime) {
+        synchronized (this) {
+            pendingNanos += Math.round(deltaTime * 1_000_000_000.0);
+        }
+        while (true) {
+            synchronized (this) {
+                if (pendingNanos < tickNanos) break;
+                pendingNanos -= tickNanos;
+                tick();
+            }
+            for (int i = 0; i < due.size(); i++) {
+                Timer timer = due.get(i);
+                try {
+                    timer.callback.run();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            due.clear();
+        }
+    }
+
+    /**
+     * 推进一刻：底层转完一圈时先从上层下放，再取出当前槽里到期的计时器
+     */
+    private void tick() {
+        currentTick++;
+        int index = (int) (currentTick & SLOT_MASK);
+        for (int level = 1; level < LEVELS && index == 0; level++) {
+            index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            cascade(level, index);
+        }
+        Timer sentinel = wheels[0][(int) (currentTick & SLOT_MASK)];
+        while (sentinel.next != sentinel) {
+            Timer timer = sentinel.next;
+            unlink(timer);
+            if (!timer.ownerAlive()) {
+                size--;
+                continue;
+            }
+            if (timer.period > 0) {
+                timer.expires += timer.period;
+                insert(timer);
+            } else {
+                size--;
+            }
+            due.add(timer);
+        }
+    }
+
+    private void cascade(int level, int index) {
+        Timer sentinel = wheels[level][index];
+        while (sentinel.next != sentinel) {
+            Timer timer = sentinel.next;
+            unlink(timer);
+            insert(timer);
+        }
+    }
+
+    private void insert(Timer timer) {
+        long delta = timer.expires - currentTick;
+        Timer sentinel;
+        if (delta < SLOTS) {
+            sentinel = wheels[0][(int) (timer.expires & SLOT_MASK)];
+        } else {
+            long expires = delta > MAX_DELTA ? currentTick + MAX_DELTA : timer.expires;
+            int level = 1;
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            sentinel = wheels[level][(int) ((expires >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        }
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+        timer.pending = true;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        timer.pending = false;
+    }
+
+    /**
+     * 等待中的计时器数量
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 时间轮经过的时间（秒）
+     */
+    public synchronized double getTime() {
+        return currentTick / (double) ticksPerSecond;
+    }
+}
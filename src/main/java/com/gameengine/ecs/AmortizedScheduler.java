@@ -0,0 +1,187 @@
+package com.gameengine.ecs;
+
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 分摊调度器：昂贵的逐实体逻辑每帧只在时间预算内处理一批实体，
+ * 下一帧从上次停下的位置继续轮转，实体多时每帧耗时保持平稳
+ * 每批的大小按测得的单实体耗时估算；可以设置最大陈旧时间，保证每个实体至少按该间隔被处理一次
+ * 每个实体记录上次处理的模拟时间，任务据此取得距上次处理经过的时间（陈旧度）
+ */
+public class AmortizedScheduler {
+    /**
+     * 处理一批实体；批内实体互不依赖，任务可以自行并行
+     */
+    @FunctionalInterface
+    public interface BatchTask {
+        void run(List<GameObject> batch);
+    }
+
+    private final String name;
+    private long budgetNanos;
+    private float maxStaleness;
+    private final List<GameObject> batch = new ArrayList<>();
+    private int cursor;
+    private double time;
+    private double nanosPerEntity;
+    private int lastBatchSize;
+    private double passStartTime;
+    private double lastPassDuration;
+    private int passProgress;
+    // 按实体槽位记录的上次处理时间，句柄不匹配表示从未处理过
+    private int[] handles = new int[0];
+    private double[] lastRun = new double[0];
+
+    /**
+     * @param budgetNanos 每帧的时间预算（纳秒）
+     */
+    public AmortizedScheduler(String name, long budgetNanos) {
+        this.name = name;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * 推进一帧：从上次停下的位置取出预算内能处理的一批实体交给任务，处理完后记录时间
+     */
+    public void update(List<GameObject> entities, float deltaTime, BatchTask task) {
+        time += deltaTime;
+        int n = entities.size();
+        if (n == 0) {
+            lastBatchSize = 0;
+            return;
+        }
+        int count = batchSize(n, deltaTime);
+        if (cursor >= n) {
+            cursor = 0;
+        }
+        batch.clear();
+        for (int i = 0; i < count; i++) {
+            batch.add(entities.get((cursor + i) % n));
+        }
+
+        long start = System.nanoTime();
+        task.run(batch);
+        long elapsed = System.nanoTime() - start;
+        double perEntity = (double) elapsed / count;
+        nanosPerEntity = nanosPerEntity == 0 ? perEntity : nanosPerEntity * 0.9 + perEntity * 0.1;
+
+        for (GameObject entity : batch) {
+            int handle = entity.getHandle();
+            int slot = EntityHandle.index(handle);
+            ensureCapacity(slot + 1);
+            handles[slot] = handle;
+            lastRun[slot] = time;
+        }
+        lastBatchSize = count;
+        cursor = (cursor + count) % n;
+        // 累计处理数达到实体数即完成一轮，用于统计一轮的耗时
+        passProgress += count;
+        if (passProgress >= n) {
+            lastPassDuration = time - passStartTime;
+            passStartTime = time;
+            passProgress = 0;
+        }
+    }
+
+    /**
+     * 本帧的批大小：预算内能处理的数量，不少于一个，也不少于满足最大陈旧时间所需的数量
+     */
+    private int batchSize(int n, float deltaTime) {
+        int count;
+        if (nanosPerEntity <= 0) {
+            // 还没有测量数据，先处理一小批
+            count = 64;
+        } else {
+            count = (int) Math.min(n, budgetNanos / nanosPerEntity);
+        }
+        if (maxStaleness > 0 && deltaTime > 0) {
+            count = Math.max(count, (int) Math.ceil(n * deltaTime / maxStaleness));
+        }
+        return Math.max(1, Math.min(n, count));
+    }
+
+    /**
+     * 距实体上次被处理经过的模拟时间；从未处理过的实体返回本帧的时间间隔
+     * 在批任务中调用时得到的是本次处理之前的值
+     */
+    public float elapsedSinceLastRun(GameObject entity, float deltaTime) {
+        int handle = entity.getHandle();
+        int slot = EntityHandle.index(handle);
+        if (slot >= handles.length || handles[slot] != handle) {
+            return deltaTime;
+        }
+        return (float) (time - lastRun[slot]);
+    }
+
+    /**
+     * 实体的陈旧度（距上次处理经过的模拟时间），从未处理过返回-1
+     */
+    public float getStaleness(GameObject entity) {
+        int handle = entity.getHandle();
+        int slot = EntityHandle.index(handle);
+        if (slot >= handles.length || handles[slot] != handle) {
+            return -1;
+        }
+        return (float) (time - lastRun[slot]);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= handles.length) return;
+        int size = Math.max(capacity, handles.length * 2);
+        handles = Arrays.copyOf(handles, size);
+        lastRun = Arrays.copyOf(lastRun, size);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = Math.max(0, budgetNanos);
+    }
+
+    /**
+     * 设置最大陈旧时间（秒），0 表示只受预算限制
+     */
+    public void setMaxStaleness(float maxStaleness) {
+        this.maxStaleness = Math.max(0, maxStaleness);
+    }
+
+    public float getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * 测得的单个实体平均耗时（纳秒）
+     */
+    public double getNanosPerEntity() {
+        return nanosPerEntity;
+    }
+
+    /**
+     * 最近完成的一轮轮转所用的模拟时间，即实体陈旧度的上界
+     */
+    public double getLastPassDuration() {
+        return lastPassDuration;
+    }
+
+    /**
+     * 格式化的统计信息
+     */
+    public String formatStats() {
+        return String.format("%-16s batch %6d  %.1f ns/entity  pass %.3f s%n",
+                name, lastBatchSize, nanosPerEntity, lastPassDuration);
+    }
+}
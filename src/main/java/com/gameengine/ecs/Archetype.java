@@ -0,0 +1,92 @@
+package com.gameengine.ecs;
+
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 原型：拥有相同数据列组合的实体集合，由若干个定长块组成
+ */
+public final class Archetype {
+    public static final int TRANSFORM = 1;
+    public static final int PHYSICS = 1 << 1;
+    public static final int RENDER = 1 << 2;
+
+    private final int mask;
+    private final List<ArchetypeChunk> chunks;
+
+    Archetype(int mask) {
+        this.mask = mask;
+        this.chunks = new ArrayList<>();
+    }
+
+    /**
+     * 为实体分配一行，写入槽位
+     */
+    void add(GameObject entity, StorageSlot slot) {
+        ArchetypeChunk target = null;
+        if (!chunks.isEmpty()) {
+            ArchetypeChunk last = chunks.get(chunks.size() - 1);
+            if (!last.isFull()) {
+                target = last;
+            }
+        }
+        if (target == null) {
+            target = new ArchetypeChunk(this);
+            chunks.add(target);
+        }
+        slot.chunk = target;
+        slot.row = target.add(entity);
+    }
+
+    /**
+     * 删除槽位所指的行，用最后一个块的末行填补空洞，保持块紧凑
+     */
+    void remove(StorageSlot slot) {
+        ArchetypeChunk chunk = slot.chunk;
+        int row = slot.row;
+        ArchetypeChunk tail = chunks.get(chunks.size() - 1);
+        if (chunk != tail && tail.size() > 0) {
+            // 先把尾块末行搬进空洞，再从尾块删除
+            int tailRow = tail.size() - 1;
+            GameObject moved = tail.getEntity(tailRow);
+            ArchetypeChunk.copyRow(tail, tailRow, chunk, row);
+            StorageSlot movedSlot = moved.getStorageSlot();
+            movedSlot.chunk = chunk;
+            movedSlot.row = row;
+            tail.swapRemove(tailRow);
+        } else {
+            GameObject moved = chunk.swapRemove(row);
+            if (moved != null) {
+                moved.getStorageSlot().row = row;
+            }
+        }
+        if (tail.size() == 0) {
+            chunks.remove(chunks.size() - 1);
+        }
+        slot.chunk = null;
+        slot.row = -1;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public boolean matches(int columns) {
+        return (mask & columns) == columns;
+    }
+
+    public List<ArchetypeChunk> getChunks() {
+        return Collections.unmodifiableList(chunks);
+    }
+
+    public int size() {
+        int total = 0;
+        for (ArchetypeChunk chunk : chunks) {
+            total += chunk.size();
+        }
+        return total;
+    }
+}
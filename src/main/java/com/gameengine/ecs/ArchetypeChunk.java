@@ -0,0 +1,160 @@
+package com.gameengine.ecs;
+
+import com.gameengine.core.GameObject;
+
+/**
+ * 原型块，以结构数组（SoA）的形式连续存放同一原型的实体数据
+ * 位置和速度双缓冲：x/y/vx/vy 是本模拟步写入的状态，px/py/pvx/pvy 是上一步结束时的只读快照，
+ * 每个模拟步开始时交换一次；并行系统读快照、写当前状态，互不干扰，结果与线程交错无关
+ */
+public final class ArchetypeChunk {
+    public static final int CAPACITY = 512;
+    // bodyFlags 列的位：物理组件启用、受重力影响、变换挂在层级中（不参与批量积分）
+    public static final int BODY_ENABLED = 1;
+    public static final int BODY_GRAVITY = 1 << 1;
+    public static final int BODY_LINKED = 1 << 2;
+
+    private final Archetype archetype;
+    private final GameObject[] entities;
+    private int count;
+
+    // 变换列，px/py 为上一模拟步的位置（只读快照，也用于渲染插值）
+    public final float[] x;
+    public final float[] y;
+    public final float[] px;
+    public final float[] py;
+    // 物理列，pvx/pvy 为上一模拟步的速度
+    public final float[] vx;
+    public final float[] vy;
+    public final float[] pvx;
+    public final float[] pvy;
+    // 批量积分用的物理参数列，movedTick 为批量积分最近一次移动该行时的变更计数
+    public final float[] ax;
+    public final float[] ay;
+    public final float[] friction;
+    public final float[] gravityX;
+    public final float[] gravityY;
+    public final int[] bodyFlags;
+    public final int[] movedTick;
+    // 渲染列
+    public final float[] width;
+    public final float[] height;
+    public final int[] color;
+
+    ArchetypeChunk(Archetype archetype) {
+        this.archetype = archetype;
+        this.entities = new GameObject[CAPACITY];
+        this.count = 0;
+        int mask = archetype.getMask();
+        boolean transform = (mask & Archetype.TRANSFORM) != 0;
+        boolean physics = (mask & Archetype.PHYSICS) != 0;
+        boolean render = (mask & Archetype.RENDER) != 0;
+        this.x = transform ? new float[CAPACITY] : null;
+        this.y = transform ? new float[CAPACITY] : null;
+        this.px = transform ? new float[CAPACITY] : null;
+        this.py = transform ? new float[CAPACITY] : null;
+        this.vx = physics ? new float[CAPACITY] : null;
+        this.vy = physics ? new float[CAPACITY] : null;
+        this.pvx = physics ? new float[CAPACITY] : null;
+        this.pvy = physics ? new float[CAPACITY] : null;
+        this.ax = physics ? new float[CAPACITY] : null;
+        this.ay = physics ? new float[CAPACITY] : null;
+        this.friction = physics ? new float[CAPACITY] : null;
+        this.gravityX = physics ? new float[CAPACITY] : null;
+        this.gravityY = physics ? new float[CAPACITY] : null;
+        this.bodyFlags = physics ? new int[CAPACITY] : null;
+        this.movedTick = physics ? new int[CAPACITY] : null;
+        this.width = render ? new float[CAPACITY] : null;
+        this.height = render ? new float[CAPACITY] : null;
+        this.color = render ? new int[CAPACITY] : null;
+    }
+
+    /**
+     * 追加一行，返回行号
+     */
+    int add(GameObject entity) {
+        int row = count++;
+        entities[row] = entity;
+        return row;
+    }
+
+    /**
+     * 交换删除指定行，返回被移动到该行的实体（没有则为null）
+     */
+    GameObject swapRemove(int row) {
+        int last = --count;
+        GameObject moved = null;
+        if (row != last) {
+            moved = entities[last];
+            copyRow(this, last, this, row);
+        }
+        entities[last] = null;
+        return moved;
+    }
+
+    /**
+     * 复制一行的实体引用和全部数据列
+     */
+    static void copyRow(ArchetypeChunk from, int fromRow, ArchetypeChunk to, int toRow) {
+        to.entities[toRow] = from.entities[fromRow];
+        if (from.x != null) {
+            to.x[toRow] = from.x[fromRow];
+            to.y[toRow] = from.y[fromRow];
+            to.px[toRow] = from.px[fromRow];
+            to.py[toRow] = from.py[fromRow];
+        }
+        if (from.vx != null) {
+            to.vx[toRow] = from.vx[fromRow];
+            to.vy[toRow] = from.vy[fromRow];
+            to.pvx[toRow] = from.pvx[fromRow];
+            to.pvy[toRow] = from.pvy[fromRow];
+            to.ax[toRow] = from.ax[fromRow];
+            to.ay[toRow] = from.ay[fromRow];
+            to.friction[toRow] = from.friction[fromRow];
+            to.gravityX[toRow] = from.gravityX[fromRow];
+            to.gravityY[toRow] = from.gravityY[fromRow];
+            to.bodyFlags[toRow] = from.bodyFlags[fromRow];
+            to.movedTick[toRow] = from.movedTick[fromRow];
+        }
+        if (from.width != null) {
+            to.width[toRow] = from.width[fromRow];
+            to.height[toRow] = from.height[fromRow];
+            to.color[toRow] = from.color[fromRow];
+        }
+    }
+
+    /**
+     * 交换读写缓冲：上一步写入的位置和速度成为本步的只读快照
+     * 系统在写缓冲上原地累加，所以交换是把写缓冲复制到读缓冲，写缓冲保持最新值
+     */
+    public void swapBuffers() {
+        if (x != null) {
+            System.arraycopy(x, 0, px, 0, count);
+            System.arraycopy(y, 0, py, 0, count);
+        }
+        if (vx != null) {
+            System.arraycopy(vx, 0, pvx, 0, count);
+            System.arraycopy(vy, 0, pvy, 0, count);
+        }
+    }
+
+    public boolean isFull() {
+        return count == CAPACITY;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public GameObject getEntity(int row) {
+        return entities[row];
+    }
+
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    public boolean has(int columns) {
+        return (archetype.getMask() & columns) == columns;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gameengine.ecs;
+
+import com.gameengine.core.GameObject;
+
+/**
+ * 实体句柄：低20位为槽位下标，高11位为代数
+ * 槽位被回收后代数加一，旧句柄随之失效
+ */
+public final class EntityHandle {
+    public static final int NONE = 0;
+
+    static final int INDEX_BITS = 20;
+    static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    static final int GENERATION_BITS = 11;
+    static final int GENERATION_MASK = (1 << GENERATION_BITS) - 1;
+
+    private final int value;
+
+    public EntityHandle(int value) {
+        this.value = value;
+    }
+
+    public static EntityHandle of(GameObject entity) {
+        return new EntityHandle(entity.getHandle());
+    }
+
+    static int pack(int index, int generation) {
+        return (generation << INDEX_BITS) | index;
+    }
+
+    /**
+     * 句柄的槽位下标
+     */
+    public static int index(int handle) {
+        return handle & INDEX_MASK;
+    }
+
+    /**
+     * 句柄的代数
+     */
+    public static int generation(int handle) {
+        return (handle >>> INDEX_BITS) & GENERATION_MASK;
+    }
+
+    /**
+     * 解析为存活的实体，句柄已失效时返回null
+     */
+    public GameObject resolve() {
+        return EntityRegistry.getInstance().resolve(value);
+    }
+
+    public boolean isStale() {
+        return !EntityRegistry.getInstance().isAlive(value);
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return value == ((EntityHandle) obj).value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityHandle(" + index(value) + "#" + generation(value) + ")";
+    }
+}
@@ -0,0 +1,131 @@
+package com.gameengine.ecs;
+
+import com.gameengine.core.GameObject;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 实体ID分配器：带代数的槽位表，回收后复用槽位
+ * 分配和回收加锁，解析无锁且为O(1)
+ */
+public final class EntityRegistry {
+    private static final EntityRegistry instance = new EntityRegistry();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final class Table {
+        final AtomicReferenceArray<GameObject> entities;
+        final AtomicIntegerArray generations;
+
+        Table(int capacity) {
+            this.entities = new AtomicReferenceArray<>(capacity);
+            this.generations = new AtomicIntegerArray(capacity);
+        }
+
+        int capacity() {
+            return generations.length();
+        }
+    }
+
+    private volatile Table table;
+    private int[] freeList;
+    private int freeCount;
+    private int nextIndex;
+    private int liveCount;
+
+    private EntityRegistry() {
+        this.table = new Table(INITIAL_CAPACITY);
+        this.freeList = new int[INITIAL_CAPACITY];
+        this.freeCount = 0;
+        // 下标0保留，保证 NONE 永远不会是有效句柄
+        this.nextIndex = 1;
+    }
+
+    public static EntityRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * 为实体分配句柄
+     */
+    public synchronized int allocate(GameObject entity) {
+        int index;
+        if (freeCount > 0) {
+            index = freeList[--freeCount];
+        } else {
+            if (nextIndex > EntityHandle.INDEX_MASK) {
+                throw new IllegalStateException("too many live entities");
+            }
+            index = nextIndex++;
+            if (index >= table.capacity()) {
+                grow(index + 1);
+            }
+        }
+        Table t = table;
+        int generation = t.generations.get(index);
+        if (generation == 0) {
+            generation = 1;
+            t.generations.set(index, generation);
+        }
+        t.entities.set(index, entity);
+        liveCount++;
+        return EntityHandle.pack(index, generation);
+    }
+
+    /**
+     * 回收句柄，槽位代数加一使旧句柄失效
+     */
+    public synchronized void release(int handle) {
+        if (!isAlive(handle)) return;
+        int index = EntityHandle.index(handle);
+        Table t = table;
+        t.entities.set(index, null);
+        int generation = (t.generations.get(index) + 1) & EntityHandle.GENERATION_MASK;
+        t.generations.set(index, generation == 0 ? 1 : generation);
+        if (freeCount == freeList.length) {
+            int[] grown = new int[freeList.length * 2];
+            System.arraycopy(freeList, 0, grown, 0, freeCount);
+            freeList = grown;
+        }
+        freeList[freeCount++] = index;
+        liveCount--;
+    }
+
+    /**
+     * 解析句柄，失效时返回null
+     */
+    public GameObject resolve(int handle) {
+        int index = EntityHandle.index(handle);
+        Table t = table;
+        if (handle == EntityHandle.NONE || index >= t.capacity()) return null;
+        if (t.generations.get(index) != EntityHandle.generation(handle)) return null;
+        return t.entities.get(index);
+    }
+
+    /**
+     * 获取槽位上当前存活的实体
+     */
+    public GameObject entityAt(int index) {
+        Table t = table;
+        return index > 0 && index < t.capacity() ? t.entities.get(index) : null;
+    }
+
+    public boolean isAlive(int handle) {
+        return resolve(handle) != null;
+    }
+
+    public synchronized int getLiveCount() {
+        return liveCount;
+    }
+
+    private void grow(int minCapacity) {
+        Table old = table;
+        int capacity = Math.max(minCapacity, old.capacity() * 2);
+        Table grown = new Table(capacity);
+        for (int i = 0; i < old.capacity(); i++) {
+            grown.entities.set(i, old.entities.get(i));
+            grown.generations.set(i, old.generations.get(i));
+        }
+        table = grown;
+    }
+}
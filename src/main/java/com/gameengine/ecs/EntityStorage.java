@@ -0,0 +1,138 @@
+package com.gameengine.ecs;
+
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按原型组织的实体存储，GameObject 只是它之上的一层外观
+ */
+public class EntityStorage {
+    private final Archetype[] archetypes;
+
+    public EntityStorage() {
+        this.archetypes = new Archetype[(Archetype.TRANSFORM | Archetype.PHYSICS | Archetype.RENDER) + 1];
+    }
+
+    /**
+     * 把实体放入与其组件组合对应的原型
+     */
+    public void attach(GameObject entity) {
+        StorageSlot slot = entity.getStorageSlot();
+        if (slot.isBound()) {
+            return;
+        }
+        int mask = columnsOf(entity);
+        if (mask == 0) {
+            return;
+        }
+        Archetype archetype = archetypes[mask];
+        if (archetype == null) {
+            archetype = new Archetype(mask);
+            archetypes[mask] = archetype;
+        }
+        archetype.add(entity, slot);
+        slot.storage = this;
+        for (Component<?> component : entity.getComponents()) {
+            if (component instanceof StoredComponent) {
+                ((StoredComponent) component).storeTo(slot.chunk, slot.row);
+            }
+        }
+    }
+
+    /**
+     * 把实体移出存储，数据写回组件字段
+     */
+    public void detach(GameObject entity) {
+        StorageSlot slot = entity.getStorageSlot();
+        if (!slot.isBound() || slot.storage != this) {
+            return;
+        }
+        ArchetypeChunk chunk = slot.chunk;
+        int row = slot.row;
+        for (Component<?> component : entity.getComponents()) {
+            if (component instanceof StoredComponent) {
+                ((StoredComponent) component).loadFrom(chunk, row);
+            }
+        }
+        chunk.getArchetype().remove(slot);
+        slot.storage = null;
+    }
+
+    /**
+     * 组件组合变化后把实体迁移到新的原型
+     */
+    public void migrate(GameObject entity) {
+        StorageSlot slot = entity.getStorageSlot();
+        if (slot.isBound() && slot.chunk.getArchetype().getMask() == columnsOf(entity)) {
+            return;
+        }
+        detach(entity);
+        attach(entity);
+    }
+    
+    private static int columnsOf(GameObject entity) {
+        int mask = 0;
+        for (Component<?> component : entity.getComponents()) {
+            if (component instanceof StoredComponent) {
+                mask |= ((StoredComponent) component).storageColumns();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 获取包含指定数据列的所有原型
+     */
+    public List<Archetype> getArchetypes(int columns) {
+        List<Archetype> result = new ArrayList<>();
+        for (Archetype archetype : archetypes) {
+            if (archetype != null && archetype.matches(columns)) {
+                result.add(archetype);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取包含指定数据列的所有块
+     */
+    public List<ArchetypeChunk> getChunks(int columns) {
+        List<ArchetypeChunk> result = new ArrayList<>();
+        for (Archetype archetype : archetypes) {
+            if (archetype != null && archetype.matches(columns)) {
+                result.addAll(archetype.getChunks());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 模拟步开始前调用，交换所有块的位置/速度双缓冲
+     */
+    public void swapBuffers() {
+        for (Archetype archetype : archetypes) {
+            if (archetype == null) continue;
+            if (!archetype.matches(Archetype.TRANSFORM) && !archetype.matches(Archetype.PHYSICS)) continue;
+            for (ArchetypeChunk chunk : archetype.getChunks()) {
+                chunk.swapBuffers();
+            }
+        }
+    }
+
+    /**
+     * 清空存储，所有实体数据写回组件
+     */
+    public void clear() {
+        for (Archetype archetype : archetypes) {
+            if (archetype == null) continue;
+            while (archetype.size() > 0) {
+                List<ArchetypeChunk> chunks = archetype.getChunks();
+                ArchetypeChunk tail = chunks.get(chunks.size() - 1);
+                detach(tail.getEntity(tail.size() - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.gameengine.ecs;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 系统基类，声明读写的组件类型，由 SystemScheduler 据此安排并行
+ */
+public abstract class GameSystem {
+    private final String name;
+    private final Set<Class<?>> reads;
+    private final Set<Class<?>> writes;
+    private final Set<Class<?>> snapshotReads;
+    private boolean enabled;
+    private int order;
+
+    protected GameSystem(String name) {
+        this.name = name;
+        this.reads = new HashSet<>();
+        this.writes = new HashSet<>();
+        this.snapshotReads = new HashSet<>();
+        this.enabled = true;
+    }
+
+    /**
+     * 更新系统
+     * @param deltaTime 时间间隔
+     */
+    public abstract void update(float deltaTime);
+
+    /**
+     * 声明只读的组件类型
+     */
+    protected final void reads(Class<?>... types) {
+        Collections.addAll(reads, types);
+    }
+
+    /**
+     * 声明只读取上一模拟步快照（双缓冲的读缓冲）的组件类型，不与写入该类型的系统冲突
+     */
+    protected final void readsPrevious(Class<?>... types) {
+        Collections.addAll(snapshotReads, types);
+    }
+
+    /**
+     * 声明会写入的组件类型
+     */
+    protected final void writes(Class<?>... types) {
+        Collections.addAll(writes, types);
+    }
+
+    /**
+     * 两个系统存在写-写或读-写重叠时不能同时运行；读快照不算重叠
+     */
+    public boolean conflictsWith(GameSystem other) {
+        for (Class<?> type : writes) {
+            if (other.writes.contains(type) || other.reads.contains(type)) {
+                return true;
+            }
+        }
+        for (Class<?> type : reads) {
+            if (other.writes.contains(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 系统在调度器中的注册序号，也用作命令缓冲的回放分组
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    void setOrder(int order) {
+        this.order = order;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<Class<?>> getReads() {
+        return Collections.unmodifiableSet(reads);
+    }
+
+    public Set<Class<?>> getWrites() {
+        return Collections.unmodifiableSet(writes);
+    }
+
+    public Set<Class<?>> getSnapshotReads() {
+        return Collections.unmodifiableSet(snapshotReads);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
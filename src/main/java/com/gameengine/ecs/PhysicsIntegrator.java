@@ -0,0 +1,83 @@
+package com.gameengine.ecs;
+
+import com.gameengine.core.ChangeTick;
+import com.gameengine.core.ParallelExecutor;
+
+import java.util.List;
+
+/**
+ * 批量物理积分：在原型块的结构数组上一次性积分所有刚体，不查找组件、不分配对象
+ * 运算与 PhysicsComponent.update 逐项相同（先加重力，再按加速度更新速度、乘摩擦、按速度移动，最后清零加速度），
+ * 结果逐位一致；物理组件禁用或变换挂在层级中的行跳过，后者仍由组件自己更新
+ */
+public final class PhysicsIntegrator {
+    private PhysicsIntegrator() {
+    }
+
+    /**
+     * 积分存储中所有同时有变换和物理列的块，返回积分的刚体数
+     */
+    public static int integrate(EntityStorage storage, float deltaTime) {
+        int tick = ChangeTick.current();
+        int count = 0;
+        for (ArchetypeChunk chunk : storage.getChunks(Archetype.TRANSFORM | Archetype.PHYSICS)) {
+            count += integrate(chunk, deltaTime, tick);
+        }
+        return count;
+    }
+
+    /**
+     * 按块并行积分（一个块就是足够大的工作单元，各块的行互不相交），返回积分的刚体数
+     */
+    public static int integrate(EntityStorage storage, float deltaTime, ParallelExecutor parallel) {
+        int tick = ChangeTick.current();
+        List<ArchetypeChunk> chunks = storage.getChunks(Archetype.TRANSFORM | Archetype.PHYSICS);
+        return parallel.parallelReduce(0, chunks.size(), 1, (from, to) -> {
+            int count = 0;
+            for (int c = from; c < to; c++) {
+                count += integrate(chunks.get(c), deltaTime, tick);
+            }
+            return count;
+        }, Integer::sum);
+    }
+
+    /**
+     * 积分一个块，移动的行记下变更计数 tick
+     */
+    public static int integrate(ArchetypeChunk chunk, float deltaTime, int tick) {
+        float[] x = chunk.x;
+        float[] y = chunk.y;
+        float[] vx = chunk.vx;
+        float[] vy = chunk.vy;
+        float[] ax = chunk.ax;
+        float[] ay = chunk.ay;
+        float[] friction = chunk.friction;
+        float[] gravityX = chunk.gravityX;
+        float[] gravityY = chunk.gravityY;
+        int[] flags = chunk.bodyFlags;
+        int[] movedTick = chunk.movedTick;
+        int n = chunk.size();
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int f = flags[i];
+            if ((f & (ArchetypeChunk.BODY_ENABLED | ArchetypeChunk.BODY_LINKED)) != ArchetypeChunk.BODY_ENABLED) continue;
+            float accelX = ax[i];
+            float accelY = ay[i];
+            if ((f & ArchetypeChunk.BODY_GRAVITY) != 0) {
+                accelX = accelX + gravityX[i];
+                accelY = accelY + gravityY[i];
+            }
+            float velX = (vx[i] + accelX * deltaTime) * friction[i];
+            float velY = (vy[i] + accelY * deltaTime) * friction[i];
+            vx[i] = velX;
+            vy[i] = velY;
+            x[i] += velX * deltaTime;
+            y[i] += velY * deltaTime;
+            ax[i] = 0;
+            ay[i] = 0;
+            movedTick[i] = tick;
+            count++;
+        }
+        return count;
+    }
+}
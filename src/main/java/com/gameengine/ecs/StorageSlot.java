@@ -0,0 +1,26 @@
+package com.gameengine.ecs;
+
+/**
+ * 实体在原型存储中的位置（块 + 行号），未入库时为空
+ */
+public final class StorageSlot {
+    EntityStorage storage;
+    ArchetypeChunk chunk;
+    int row = -1;
+
+    public boolean isBound() {
+        return chunk != null;
+    }
+
+    public EntityStorage getStorage() {
+        return storage;
+    }
+
+    public ArchetypeChunk getChunk() {
+        return chunk;
+    }
+
+    public int getRow() {
+        return row;
+    }
+}
@@ -0,0 +1,22 @@
+package com.gameengine.ecs;
+
+/**
+ * 可以把数据存放到原型块中的组件
+ * 入库时组件把自身字段写入块，出库时再从块读回
+ */
+public interface StoredComponent {
+    /**
+     * 组件占用的数据列
+     */
+    int storageColumns();
+
+    /**
+     * 把组件字段写入块的指定行
+     */
+    void storeTo(ArchetypeChunk chunk, int row);
+
+    /**
+     * 从块的指定行读回组件字段
+     */
+    void loadFrom(ArchetypeChunk chunk, int row);
+}
@@ -0,0 +1,129 @@
+package com.gameengine.ecs;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 系统调度器：每帧按声明的读写集合建立依赖图
+ * 没有冲突的系统在多个核心上同时运行，有冲突的按注册顺序先后运行
+ * 调度器不持有线程，系统在外部提供的执行器上运行
+ */
+public class SystemScheduler {
+    private final List<GameSystem> systems;
+    private final Map<GameSystem, Timing> timings;
+    private final Executor executor;
+
+    /**
+     * 单个系统的耗时统计
+     */
+    public static class Timing {
+        private volatile long lastNanos;
+        private volatile double averageNanos;
+
+        void record(long nanos) {
+            lastNanos = nanos;
+            averageNanos = averageNanos == 0 ? nanos : averageNanos * 0.95 + nanos * 0.05;
+        }
+
+        public double getLastMillis() {
+            return lastNanos / 1_000_000.0;
+        }
+
+        public double getAverageMillis() {
+            return averageNanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * @param executor 运行系统的执行器，通常是引擎共享的并行执行器
+     */
+    public SystemScheduler(Executor executor) {
+        this.systems = new ArrayList<>();
+        this.timings = new LinkedHashMap<>();
+        this.executor = executor;
+    }
+
+    /**
+     * 注册系统，注册顺序决定冲突系统之间的执行顺序
+     */
+    public void addSystem(GameSystem system) {
+        system.setOrder(systems.size());
+        systems.add(system);
+        timings.put(system, new Timing());
+    }
+
+    /**
+     * 运行一帧：依赖的系统完成后才启动，返回前等待全部完成
+     */
+    public void update(float deltaTime) {
+        List<GameSystem> active = new ArrayList<>();
+        for (GameSystem system : systems) {
+            if (system.isEnabled()) {
+                active.add(system);
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(active.size());
+        for (int i = 0; i < active.size(); i++) {
+            GameSystem system = active.get(i);
+            List<CompletableFuture<Void>> deps = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (system.conflictsWith(active.get(j))) {
+                    deps.add(futures.get(j));
+                }
+            }
+            CompletableFuture<Void> ready = deps.isEmpty()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(deps.toArray(CompletableFuture<?>[]::new));
+            futures.add(ready.thenRunAsync(() -> run(system, deltaTime), executor));
+        }
+
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void run(GameSystem system, float deltaTime) {
+        long start = System.nanoTime();
+        try {
+            system.update(deltaTime);
+        } finally {
+            timings.get(system).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 获取各系统的耗时统计（按注册顺序）
+     */
+    public Map<String, Timing> getTimings() {
+        Map<String, Timing> result = new LinkedHashMap<>();
+        for (Map.Entry<GameSystem, Timing> entry : timings.entrySet()) {
+            result.put(entry.getKey().getName(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * 格式化耗时统计
+     */
+    public String formatTimings() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<GameSystem, Timing> entry : timings.entrySet()) {
+            sb.append(String.format("%-20s last=%.3fms avg=%.3fms%n", entry.getKey().getName(),
+                    entry.getValue().getLastMillis(), entry.getValue().getAverageMillis()));
+        }
+        return sb.toString();
+    }
+
+    public List<GameSystem> getSystems() {
+        return new ArrayList<>(systems);
+    }
+}
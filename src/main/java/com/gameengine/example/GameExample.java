@@ -11,6 +11,9 @@ public class GameExample {
 
         try {
             GameEngine engine = new GameEngine(800, 600, "游戏引擎");
+            // 以固定的60Hz模拟，渲染在两步之间插值；负载高的机器可以改用 setTickRate(30)
+            engine.setFixedTimestep(true);
+            engine.setTickRate(60);
             Renderer renderer = engine.getRenderer();
             MenuScene menuScene = new MenuScene(engine, renderer);
             engine.setScene(menuScene);
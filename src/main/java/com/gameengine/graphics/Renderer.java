@@ -90,16 +90,17 @@ public class Renderer extends JFrame {
         });
     }
     /**
-     * 开始渲染帧
+     * 开始渲染帧（游戏线程）
      */
     public void beginFrame() {
         gamePanel.clear();
     }
 
     /**
-     * 结束渲染帧
+     * 结束渲染帧：发布绘制列表并请求重绘，不等待绘制完成
      */
     public void endFrame() {
+        gamePanel.publish();
         gamePanel.repaint();
     }
 
@@ -142,14 +143,15 @@ public class Renderer extends JFrame {
      * 处理事件
      */
     public void pollEvents() {
-        // Swing自动处理事件
+        // Swing在EDT上投递事件，这里把本帧之前到达的瞬态输入交给游戏线程
+        inputManager.pollEvents();
     }
 
     /**
      * 清理资源
      */
     public void cleanup() {
-        dispose();
+        SwingUtilities.invokeLater(this::dispose);
     }
 
     // Getters
@@ -169,7 +171,8 @@ public class Renderer extends JFrame {
      * 游戏面板类
      */
     private class GamePanel extends JPanel {
-        private List<Drawable> drawables = new ArrayList<>();
+        // 游戏线程写、EDT读的三缓冲绘制列表
+        private final TripleBuffer<List<Drawable>> drawLists = new TripleBuffer<>(ArrayList::new);
 
         public GamePanel() {
             setPreferredSize(new Dimension(width, height));
@@ -177,11 +180,15 @@ public class Renderer extends JFrame {
         }
 
         public void clear() {
-            drawables.clear();
+            drawLists.getWriteBuffer().clear();
         }
 
         public void addDrawable(Drawable drawable) {
-            drawables.add(drawable);
+            drawLists.getWriteBuffer().add(drawable);
+        }
+
+        public void publish() {
+            drawLists.publish();
         }
 
         @Override
@@ -190,7 +197,7 @@ public class Renderer extends JFrame {
             Graphics2D g2d = (Graphics2D) g;
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-            for (Drawable drawable : drawables) {
+            for (Drawable drawable : drawLists.acquireReadBuffer()) {
                 drawable.draw(g2d);
             }
         }
@@ -0,0 +1,59 @@
+package com.gameengine.graphics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 无锁三缓冲：一个生产者写、一个消费者读，双方都不会等待对方
+ * 生产者写完后发布，与中间缓冲交换；消费者取最新发布的缓冲，没有新帧时继续用上一帧
+ */
+public final class TripleBuffer<T> {
+    private static final int INDEX_MASK = 0x3;
+    private static final int FRESH = 0x4;
+
+    private final Object[] buffers;
+    // 中间缓冲的下标，FRESH 位表示生产者发布后消费者还没取走
+    private final AtomicInteger middle;
+    private int writeIndex;
+    private int readIndex;
+
+    public TripleBuffer(Supplier<T> factory) {
+        this.buffers = new Object[] {factory.get(), factory.get(), factory.get()};
+        this.writeIndex = 0;
+        this.middle = new AtomicInteger(1);
+        this.readIndex = 2;
+    }
+
+    /**
+     * 生产者当前可写的缓冲
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * 生产者发布写好的缓冲，换回一个空闲缓冲继续写
+     */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * 消费者获取最新发布的缓冲；没有新发布时返回上一次取到的缓冲
+     */
+    @SuppressWarnings("unchecked")
+    public T acquireReadBuffer() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) buffers[readIndex];
+    }
+
+    /**
+     * 是否有尚未被消费者取走的新帧
+     */
+    public boolean hasFreshBuffer() {
+        return (middle.get() & FRESH) != 0;
+    }
+}
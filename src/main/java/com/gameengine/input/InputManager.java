@@ -8,36 +8,54 @@ import java.util.Set;
 
 /**
  * 输入管理器，处理键盘和鼠标输入
+ * 事件在Swing的EDT上到达，游戏逻辑在游戏线程读取，所有方法都加锁；
+ * 瞬态输入先进入待处理集合，由游戏线程在帧开始时 pollEvents 取走，避免读写之间丢失按键
+ * 每个事件使事件计数加一并唤醒 awaitEvent 中等待的线程，空闲场景据此只在有输入时重绘
  */
 public class InputManager {
-    private static InputManager instance;
+    private static final InputManager instance = new InputManager();
     private Set<Integer> pressedKeys;
     private Set<Integer> justPressedKeys;
+    private Set<Integer> pendingJustPressedKeys;
     private Map<Integer, Boolean> keyStates;
     private Vector2 mousePosition;
     private boolean[] mouseButtons;
     private boolean[] mouseButtonsJustPressed;
+    private boolean[] pendingMouseButtonsJustPressed;
+    // 输入事件和外部唤醒的计数
+    private long eventCount;
     
     private InputManager() {
         pressedKeys = new HashSet<>();
         justPressedKeys = new HashSet<>();
+        pendingJustPressedKeys = new HashSet<>();
         keyStates = new HashMap<>();
         mousePosition = new Vector2();
         mouseButtons = new boolean[3]; // 左键、右键、中键
         mouseButtonsJustPressed = new boolean[3];
+        pendingMouseButtonsJustPressed = new boolean[3];
     }
     
     public static InputManager getInstance() {
-        if (instance == null) {
-            instance = new InputManager();
-        }
         return instance;
     }
     
+    /**
+     * 帧开始时由游戏线程调用，把EDT上新到达的瞬态输入变为本帧可见
+     */
+    public synchronized void pollEvents() {
+        justPressedKeys.addAll(pendingJustPressedKeys);
+        pendingJustPressedKeys.clear();
+        for (int i = 0; i < mouseButtonsJustPressed.length; i++) {
+            mouseButtonsJustPressed[i] |= pendingMouseButtonsJustPressed[i];
+            pendingMouseButtonsJustPressed[i] = false;
+        }
+    }
+    
     /**
      * 更新输入状态
      */
-    public void update() {
+    public synchronized void update() {
         justPressedKeys.clear();
         for (int i = 0; i < mouseButtonsJustPressed.length; i++) {
             mouseButtonsJustPressed[i] = false;
@@ -47,9 +65,10 @@ public class InputManager {
     /**
      * 处理键盘按下事件
      */
-    public void onKeyPressed(int keyCode) {
+    public synchronized void onKeyPressed(int keyCode) {
+        signalEvent();
         if (!pressedKeys.contains(keyCode)) {
-            justPressedKeys.add(keyCode);
+            pendingJustPressedKeys.add(keyCode);
         }
         pressedKeys.add(keyCode);
         keyStates.put(keyCode, true);
@@ -58,7 +77,8 @@ public class InputManager {
     /**
      * 处理键盘释放事件
      */
-    public void onKeyReleased(int keyCode) {
+    public synchronized void onKeyReleased(int keyCode) {
+        signalEvent();
         pressedKeys.remove(keyCode);
         keyStates.put(keyCode, false);
     }
@@ -66,7 +86,8 @@ public class InputManager {
     /**
      * 处理鼠标移动事件
      */
-    public void onMouseMoved(float x, float y) {
+    public synchronized void onMouseMoved(float x, float y) {
+        signalEvent();
         mousePosition.x = x;
         mousePosition.y = y;
     }
@@ -74,10 +95,11 @@ public class InputManager {
     /**
      * 处理鼠标按下事件
      */
-    public void onMousePressed(int button) {
+    public synchronized void onMousePressed(int button) {
+        signalEvent();
         if (button >= 0 && button < mouseButtons.length) {
             if (!mouseButtons[button]) {
-                mouseButtonsJustPressed[button] = true;
+                pendingMouseButtonsJustPressed[button] = true;
             }
             mouseButtons[button] = true;
         }
@@ -86,30 +108,64 @@ public class InputManager {
     /**
      * 处理鼠标释放事件
      */
-    public void onMouseReleased(int button) {
+    public synchronized void onMouseReleased(int button) {
+        signalEvent();
         if (button >= 0 && button < mouseButtons.length) {
             mouseButtons[button] = false;
         }
     }
     
+    /**
+     * 不带输入的唤醒（场景失效、I/O回调到达、引擎停止等），让空闲等待的游戏线程跑一帧
+     */
+    public synchronized void wakeUp() {
+        signalEvent();
+    }
+    
+    private void signalEvent() {
+        eventCount++;
+        notifyAll();
+    }
+    
+    /**
+     * 当前的事件计数
+     */
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+    
+    /**
+     * 等待事件计数不再等于 seenCount，最多等待 timeoutMillis 毫秒
+     * @return 是否有新事件
+     */
+    public synchronized boolean awaitEvent(long seenCount, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (eventCount == seenCount) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) return false;
+            wait(remaining);
+        }
+        return true;
+    }
+    
     /**
      * 检查按键是否被按下
      */
-    public boolean isKeyPressed(int keyCode) {
+    public synchronized boolean isKeyPressed(int keyCode) {
         return pressedKeys.contains(keyCode);
     }
     
     /**
      * 检查按键是否刚刚被按下（只在这一帧为true）
      */
-    public boolean isKeyJustPressed(int keyCode) {
+    public synchronized boolean isKeyJustPressed(int keyCode) {
         return justPressedKeys.contains(keyCode);
     }
     
     /**
      * 检查鼠标按键是否被按下
      */
-    public boolean isMouseButtonPressed(int button) {
+    public synchronized boolean isMouseButtonPressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             return mouseButtons[button];
         }
@@ -119,7 +175,7 @@ public class InputManager {
     /**
      * 检查鼠标按键是否刚刚被按下
      */
-    public boolean isMouseButtonJustPressed(int button) {
+    public synchronized boolean isMouseButtonJustPressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             return mouseButtonsJustPressed[button];
         }
@@ -129,28 +185,35 @@ public class InputManager {
     /**
      * 获取鼠标位置
      */
-    public Vector2 getMousePosition() {
+    public synchronized Vector2 getMousePosition() {
         return new Vector2(mousePosition);
     }
     
+    /**
+     * 把鼠标位置写入 out 并返回 out，不分配对象
+     */
+    public synchronized Vector2 getMousePosition(Vector2 out) {
+        return out.set(mousePosition);
+    }
+    
     /**
      * 获取鼠标X坐标
      */
-    public float getMouseX() {
+    public synchronized float getMouseX() {
         return mousePosition.x;
     }
     
     /**
      * 获取鼠标Y坐标
      */
-    public float getMouseY() {
+    public synchronized float getMouseY() {
         return mousePosition.y;
     }
 
         /**
      * 获取当前帧刚刚按下的按键快照（用于录像）
      */
-    public Set<Integer> getJustPressedKeysSnapshot() {
+    public synchronized Set<Integer> getJustPressedKeysSnapshot() {
         return new HashSet<>(justPressedKeys);
     }
 }
@@ -0,0 +1,65 @@
+package com.gameengine.math;
+
+/**
+ * 线程私有的临时向量栈：热路径上代替 new Vector2 的临时值
+ * 用法：先 mark() 记下栈顶，用 next() 取向量，结束时 release(mark) 归还；
+ * 取到的向量只在 release 之前有效，不能保存到字段或跨线程传递
+ */
+public final class ScratchVectors {
+    private static final ThreadLocal<ScratchVectors> LOCAL = ThreadLocal.withInitial(ScratchVectors::new);
+
+    private Vector2[] stack = new Vector2[16];
+    private int top;
+
+    private ScratchVectors() {
+        for (int i = 0; i < stack.length; i++) {
+            stack[i] = new Vector2();
+        }
+    }
+
+    /**
+     * 当前线程的临时向量栈
+     */
+    public static ScratchVectors get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * 记下栈顶位置
+     */
+    public int mark() {
+        return top;
+    }
+
+    /**
+     * 取一个临时向量，内容未定义，使用前先 set
+     */
+    public Vector2 next() {
+        if (top == stack.length) {
+            Vector2[] grown = new Vector2[stack.length * 2];
+            System.arraycopy(stack, 0, grown, 0, stack.length);
+            for (int i = stack.length; i < grown.length; i++) {
+                grown[i] = new Vector2();
+            }
+            stack = grown;
+        }
+        return stack[top++];
+    }
+
+    /**
+     * 取一个临时向量并设置分量
+     */
+    public Vector2 next(float x, float y) {
+        return next().set(x, y);
+    }
+
+    /**
+     * 归还 mark 之后取出的所有向量
+     */
+    public void release(int mark) {
+        if (mark < 0 || mark > top) {
+            throw new IllegalStateException("scratch vectors released out of order");
+        }
+        top = mark;
+    }
+}
@@ -69,7 +69,83 @@ public class Vector2 {
      * 计算距离
      */
     public float distance(Vector2 other) {
-        return this.subtract(other).magnitude();
+        return distance(this.x, this.y, other.x, other.y);
+    }
+    
+    /**
+     * 两点间距离，与 distance(Vector2) 的计算相同，不分配对象
+     */
+    public static float distance(float ax, float ay, float bx, float by) {
+        float dx = ax - bx;
+        float dy = ay - by;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+    
+    // 以下为原地修改的版本，返回自身以便链式调用，热路径上用来避免分配新对象
+    
+    /**
+     * 设置分量
+     */
+    public Vector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+    
+    /**
+     * 复制另一个向量的分量
+     */
+    public Vector2 set(Vector2 other) {
+        this.x = other.x;
+        this.y = other.y;
+        return this;
+    }
+    
+    /**
+     * 原地加法
+     */
+    public Vector2 addLocal(Vector2 other) {
+        this.x += other.x;
+        this.y += other.y;
+        return this;
+    }
+    
+    /**
+     * 原地加法
+     */
+    public Vector2 addLocal(float x, float y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+    
+    /**
+     * 原地减法
+     */
+    public Vector2 subtractLocal(Vector2 other) {
+        this.x -= other.x;
+        this.y -= other.y;
+        return this;
+    }
+    
+    /**
+     * 原地标量乘法
+     */
+    public Vector2 scaleLocal(float scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        return this;
+    }
+    
+    /**
+     * 原地标准化，零向量保持为零
+     */
+    public Vector2 normalizeLocal() {
+        float mag = magnitude();
+        if (mag == 0) return set(0, 0);
+        this.x /= mag;
+        this.y /= mag;
+        return this;
     }
     
     @Override
@@ -1,25 +1,36 @@
 // Modified RecordingService.java to record numeric ID and name
 package com.gameengine.recording;
 
+import com.gameengine.components.RenderComponent;
 import com.gameengine.components.TransformComponent;
+import com.gameengine.core.ChangeTick;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.IoExecutor;
 import com.gameengine.input.InputManager;
 import com.gameengine.scene.Scene;
 
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class RecordingService {
     private final RecordingConfig config;
+    // 写入结束标记，按引用比较
+    private static final String END_OF_STREAM = new String("<end>");
+
     private final BlockingQueue<String> lineQueue;
+    private final IoExecutor io;
     private volatile boolean recording;
-    private Thread writerThread;
+    private Future<?> writerTask;
     private RecordingStorage storage = new FileRecordingStorage();
     private double elapsed;
     private double keyframeElapsed;
@@ -27,10 +38,15 @@ public class RecordingService {
     private final double warmupSec = 0.1;
     private final DecimalFormat qfmt;
     private Scene lastScene;
+    // 关键帧格式保持完整，未变化的实体复用上次序列化的片段
+    private final Map<GameObject, Fragment> fragments = new IdentityHashMap<>();
+    private int keyframeSerial;
 
-    public RecordingService(RecordingConfig config) {
+    public RecordingService(RecordingConfig config, IoExecutor io) {
         this.config = config;
-        this.lineQueue = new ArrayBlockingQueue<>(config.queueCapacity);
+        this.io = io;
+        // 链表队列按需分配节点，容量很大时也不会一次性占用内存
+        this.lineQueue = new LinkedBlockingQueue<>(config.queueCapacity);
         this.recording = false;
         this.elapsed = 0.0;
         this.keyframeElapsed = 0.0;
@@ -50,30 +66,29 @@ public class RecordingService {
     public void start(Scene scene, int width, int height) throws IOException {
         if (recording) return;
         storage.openWriter(config.outputPath);
-        writerThread = new Thread(() -> {
+        recording = true;
+        // 写入任务在I/O执行器上阻塞等待新行，收到结束标记后关闭文件
+        writerTask = io.execute(() -> {
             try {
-                while (recording || !lineQueue.isEmpty()) {
-                    String s = lineQueue.poll();
-                    if (s == null) {
-                        try { Thread.sleep(2); } catch (InterruptedException ignored) {}
-                        continue;
-                    }
+                while (true) {
+                    String s = lineQueue.take();
+                    if (s == END_OF_STREAM) break;
                     storage.writeLine(s);
                 }
             } catch (IOException e) {
                 e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } finally {
                 try { storage.closeWriter(); } catch (Exception ignored) {}
             }
-        }, "record-writer");
-        recording = true;
-        writerThread.start();
+        });
 
         enqueue("{\"type\":\"header\",\"version\":1,\"w\":" + width + ",\"h\":" + height + "}");
         keyframeElapsed = 0.0;
     }
 
-    public void stop() {
+    public synchronized void stop() {
         if (!recording) return;
         try {
             if (lastScene != null) {
@@ -82,8 +97,13 @@ public class RecordingService {
         } catch (Exception ignored) {}
         recording = false;
         try {
-            writerThread.join();  // Wait indefinitely → prevents truncation
-        } catch (InterruptedException ignored) {}
+            lineQueue.put(END_OF_STREAM);
+            writerTask.get();  // Wait indefinitely → prevents truncation
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
     }
 
     // NEW: Force write a keyframe immediately (useful at game over)
@@ -131,52 +151,90 @@ public class RecordingService {
         }
     }
 
-    private boolean writeKeyframe(Scene scene) {
+    /**
+     * 关键帧里单个实体的JSON片段，组件自生成以来未被修改时直接复用
+     */
+    private static final class Fragment {
+        int handle;
+        String name;
+        TransformComponent transform;
+        RenderComponent render;
+        int tick;
+        int keyframe;
+        String json;
+    }
+
+    private synchronized boolean writeKeyframe(Scene scene) {
         StringBuilder sb = new StringBuilder();
         sb.append("{\"type\":\"keyframe\",\"t\":").append(qfmt.format(elapsed)).append(",\"entities\":[");
         List<GameObject> objs = scene.getGameObjects();
+        int tick = ChangeTick.current();
+        keyframeSerial++;
         boolean first = true;
         int count = 0;
         for (GameObject obj : objs) {
             TransformComponent tc = obj.getComponent(TransformComponent.class);
             if (tc == null) continue;
-            float x = tc.getPosition().x;
-            float y = tc.getPosition().y;
-            if (!first) sb.append(',');
-            sb.append('{')
-              .append("\"id\":").append(obj.getId()).append(',')
-              .append("\"name\":\"").append(obj.getName()).append("\",")
-              .append("\"x\":").append(qfmt.format(x)).append(',')
-              .append("\"y\":").append(qfmt.format(y));
-
-            com.gameengine.components.RenderComponent rc = obj.getComponent(com.gameengine.components.RenderComponent.class);
-            if (rc != null) {
-                com.gameengine.components.RenderComponent.RenderType rt = rc.getRenderType();
-                com.gameengine.math.Vector2 sz = rc.getSize();
-                com.gameengine.components.RenderComponent.Color col = rc.getColor();
-                sb.append(',')
-                  .append("\"rt\":\"").append(rt.name()).append("\",")
-                  .append("\"w\":").append(qfmt.format(sz.x)).append(',')
-                  .append("\"h\":").append(qfmt.format(sz.y)).append(',')
-                  .append("\"color\":[")
-                  .append(qfmt.format(col.r)).append(',')
-                  .append(qfmt.format(col.g)).append(',')
-                  .append(qfmt.format(col.b)).append(',')
-                  .append(qfmt.format(col.a)).append(']');
-            } else {
-                sb.append(',').append("\"rt\":\"CUSTOM\"");
+            RenderComponent rc = obj.getComponent(RenderComponent.class);
+            Fragment fragment = fragments.get(obj);
+            if (fragment == null) {
+                fragment = new Fragment();
+                fragments.put(obj, fragment);
+            } else if (fragment.handle != obj.getHandle() || fragment.name != obj.getName()
+                    || fragment.transform != tc || fragment.render != rc
+                    || tc.isChangedSince(fragment.tick) || (rc != null && rc.isChangedSince(fragment.tick))) {
+                fragment.json = null;
             }
-
-            sb.append('}');
+            if (fragment.json == null) {
+                fragment.handle = obj.getHandle();
+                fragment.name = obj.getName();
+                fragment.transform = tc;
+                fragment.render = rc;
+                fragment.tick = tick;
+                fragment.json = serialize(obj, tc, rc);
+            }
+            fragment.keyframe = keyframeSerial;
+            if (!first) sb.append(',');
+            sb.append(fragment.json);
             first = false;
             count++;
         }
         sb.append("]}");
+        // 丢弃本次关键帧中没有出现的实体的片段
+        fragments.values().removeIf(f -> f.keyframe != keyframeSerial);
         if (count == 0) return false;
         enqueue(sb.toString());
         return true;
     }
 
+    private String serialize(GameObject obj, TransformComponent tc, RenderComponent rc) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{')
+          .append("\"id\":").append(obj.getId()).append(',')
+          .append("\"name\":\"").append(obj.getName()).append("\",")
+          .append("\"x\":").append(qfmt.format(tc.getX())).append(',')
+          .append("\"y\":").append(qfmt.format(tc.getY()));
+
+        if (rc != null) {
+            RenderComponent.RenderType rt = rc.getRenderType();
+            RenderComponent.Color col = rc.getColor();
+            sb.append(',')
+              .append("\"rt\":\"").append(rt.name()).append("\",")
+              .append("\"w\":").append(qfmt.format(rc.getWidth())).append(',')
+              .append("\"h\":").append(qfmt.format(rc.getHeight())).append(',')
+              .append("\"color\":[")
+              .append(qfmt.format(col.r)).append(',')
+              .append(qfmt.format(col.g)).append(',')
+              .append(qfmt.format(col.b)).append(',')
+              .append(qfmt.format(col.a)).append(']');
+        } else {
+            sb.append(',').append("\"rt\":\"CUSTOM\"");
+        }
+
+        sb.append('}');
+        return sb.toString();
+    }
+
     private void enqueue(String line) {
         if (!lineQueue.offer(line)) {
             // Drop if full
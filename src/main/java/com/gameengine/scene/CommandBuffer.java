@@ -0,0 +1,112 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 结构变更命令缓冲：并行任务只往自己的缓冲追加命令，不加锁
+ * 由 Scene 在同步点按 (group, index) 顺序回放，回放结果与线程调度无关
+ */
+public final class CommandBuffer {
+    private static final int SPAWN = 0;
+    private static final int DESTROY = 1;
+    private static final int ADD_COMPONENT = 2;
+    private static final int REMOVE_COMPONENT = 3;
+
+    private final int group;
+    private final int index;
+    private final List<Command> commands;
+
+    private static final class Command {
+        final int type;
+        final GameObject target;
+        final Component<?> component;
+        final Class<?> componentType;
+
+        Command(int type, GameObject target, Component<?> component, Class<?> componentType) {
+            this.type = type;
+            this.target = target;
+            this.component = component;
+            this.componentType = componentType;
+        }
+    }
+
+    CommandBuffer(int group, int index) {
+        this.group = group;
+        this.index = index;
+        this.commands = new ArrayList<>();
+    }
+
+    /**
+     * 记录：把对象加入场景
+     */
+    public void spawn(GameObject obj) {
+        commands.add(new Command(SPAWN, obj, null, null));
+    }
+
+    /**
+     * 记录：把对象移出场景
+     */
+    public void destroy(GameObject obj) {
+        commands.add(new Command(DESTROY, obj, null, null));
+    }
+
+    /**
+     * 记录：给对象添加组件
+     */
+    public void addComponent(GameObject obj, Component<?> component) {
+        commands.add(new Command(ADD_COMPONENT, obj, component, null));
+    }
+
+    /**
+     * 记录：移除对象的组件
+     */
+    public void removeComponent(GameObject obj, Class<?> componentType) {
+        commands.add(new Command(REMOVE_COMPONENT, obj, null, componentType));
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    int getGroup() {
+        return group;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * 按记录顺序回放到场景
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void playback(Scene scene) {
+        for (Command command : commands) {
+            switch (command.type) {
+                case SPAWN:
+                    scene.attachObject(command.target);
+                    break;
+                case DESTROY:
+                    scene.detachObject(command.target);
+                    break;
+                case ADD_COMPONENT:
+                    command.target.addComponent((Component) command.component);
+                    break;
+                case REMOVE_COMPONENT:
+                    command.target.removeComponent((Class) command.componentType);
+                    break;
+                default:
+                    break;
+            }
+        }
+        commands.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.Component;
+import com.gameengine.core.ComponentRegistry;
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 场景中注册的缓存查询，按组件组合或标签匹配实体
+ * 成员只在场景增删对象时增量维护，每帧读取不需要重新过滤
+ */
+public class EntityQuery {
+    private final Class<?>[] componentTypes;
+    private final long mask;
+    private final boolean overflow;
+    private final String tag;
+    private final List<GameObject> members;
+    private final List<GameObject> view;
+    private final Map<GameObject, Integer> index;
+    private int version;
+    private List<Component<?>> cachedComponents;
+    private int cachedVersion = -1;
+
+    EntityQuery(Class<?>[] componentTypes, String tag) {
+        this.componentTypes = componentTypes.clone();
+        long m = 0L;
+        boolean over = false;
+        for (Class<?> type : componentTypes) {
+            long bit = ComponentRegistry.bitOf(type);
+            if (bit == 0L) {
+                over = true;
+            }
+            m |= bit;
+        }
+        this.mask = m;
+        this.overflow = over;
+        this.tag = tag;
+        this.members = new ArrayList<>();
+        this.view = Collections.unmodifiableList(members);
+        this.index = new IdentityHashMap<>();
+    }
+
+    /**
+     * 判断对象是否满足查询条件
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    boolean matches(GameObject obj) {
+        if (tag != null && !tag.equals(obj.getName())) {
+            return false;
+        }
+        if ((obj.getSignature() & mask) != mask) {
+            return false;
+        }
+        if (overflow) {
+            for (Class<?> type : componentTypes) {
+                if (!obj.hasComponent((Class) type)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 对象加入场景或发生变化时调用，更新成员关系
+     */
+    void refresh(GameObject obj) {
+        boolean match = matches(obj);
+        boolean present = index.containsKey(obj);
+        if (match && !present) {
+            add(obj);
+        } else if (!match && present) {
+            remove(obj);
+        }
+    }
+
+    void add(GameObject obj) {
+        index.put(obj, members.size());
+        members.add(obj);
+        version++;
+    }
+
+    /**
+     * 交换删除，O(1)
+     */
+    void remove(GameObject obj) {
+        Integer idx = index.remove(obj);
+        if (idx == null) return;
+        int last = members.size() - 1;
+        GameObject moved = members.remove(last);
+        if (idx != last) {
+            members.set(idx, moved);
+            index.put(moved, idx);
+        }
+        version++;
+    }
+
+    void clear() {
+        members.clear();
+        index.clear();
+        version++;
+    }
+
+    /**
+     * 获取匹配的对象（只读视图）
+     */
+    public List<GameObject> getMembers() {
+        return view;
+    }
+
+    public boolean contains(GameObject obj) {
+        return index.containsKey(obj);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * 获取第一个匹配对象，没有则为null
+     */
+    public GameObject first() {
+        return members.isEmpty() ? null : members.get(0);
+    }
+
+    /**
+     * 获取指定类型组件在 tick 当时或之后被修改过的成员
+     */
+    public <T extends Component<T>> List<GameObject> changedSince(Class<T> componentType, int tick) {
+        List<GameObject> result = new ArrayList<>();
+        for (GameObject obj : members) {
+            T component = obj.getComponent(componentType);
+            if (component != null && component.isChangedSince(tick)) {
+                result.add(obj);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取成员上指定类型的组件，成员不变时复用上次的结果
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Component<T>> List<T> components(Class<T> componentType) {
+        if (cachedComponents == null || cachedVersion != version) {
+            List<Component<?>> list = new ArrayList<>(members.size());
+            for (GameObject obj : members) {
+                T component = obj.getComponent(componentType);
+                if (component != null) {
+                    list.add(component);
+                }
+            }
+            cachedComponents = Collections.unmodifiableList(list);
+            cachedVersion = version;
+        }
+        return (List<T>) (List<?>) cachedComponents;
+    }
+
+    long getMask() {
+        return mask;
+    }
+
+    String getTag() {
+        return tag;
+    }
+}
@@ -13,7 +13,8 @@ import java.util.Random;
 public class GameScene extends Scene {
     private Renderer renderer;
     private Random random;
-    private float time;
+    // 刷怪间隔（秒）
+    private static final float SPAWN_INTERVAL = 0.2f;
     private GameLogic gameLogic;
     private GameEngine engine;
 
@@ -22,7 +23,6 @@ public class GameScene extends Scene {
         this.engine = engine;
         this.renderer = renderer;
         this.random = new Random();
-        this.time = 0;
     }
 
     @Override
@@ -32,6 +32,7 @@ public class GameScene extends Scene {
         createPlayer();
         createEnemies();
         createDecorations();
+        gameLogic.getTimers().schedulePeriodic(SPAWN_INTERVAL, this::createEnemy);
     }
 
     @Override
@@ -41,17 +42,7 @@ public class GameScene extends Scene {
         }
 
         super.update(deltaTime);
-        time += deltaTime;
-
-        gameLogic.handlePlayerInput(deltaTime);
-        gameLogic.handleEnemyShooting(deltaTime);
-        gameLogic.checkCollisions();
-        gameLogic.updatePhysics();
-
-        if (time > 0.2f) {
-            createEnemy();
-            time = 0;
-        }
+        gameLogic.update(deltaTime);
     }
 
     @Override
@@ -82,6 +73,12 @@ public class GameScene extends Scene {
                 new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
         ));
         render.setRenderer(renderer);
+        ColliderComponent collider = enemy.addComponent(new ColliderComponent(
+                ColliderComponent.Shape.CIRCLE,
+                new Vector2(20, 20),
+                ColliderComponent.LAYER_ENEMY
+        ));
+        collider.setDamage(20);
         PhysicsComponent physics = enemy.addComponent(new PhysicsComponent(0.5f));
         physics.setVelocity(new Vector2(
                 (random.nextFloat() - 0.5f) * 100,
@@ -89,6 +86,7 @@ public class GameScene extends Scene {
         ));
         physics.setFriction(0.98f);
         addGameObject(enemy);
+        gameLogic.onEnemySpawned(enemy);
     }
 
     private void createDecoration() {
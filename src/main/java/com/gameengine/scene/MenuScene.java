@@ -47,6 +47,11 @@ public class MenuScene extends Scene {
         addGameObject(exitButton);
     }
 
+    @Override
+    public boolean isIdleCapable() {
+        return true;
+    }
+
     @Override
     public void render() {
         renderer.drawRect(0, 0, 800, 600, 0.2f, 0.2f, 0.2f, 1.0f);
@@ -31,6 +31,7 @@ public class ReplayScene extends Scene {
     private double gameOverTime = -1.0;
     private int enemiesKilled = 0;
     private double averageFps = 0.0;
+    private boolean loading;
 
     public ReplayScene(GameEngine engine, Renderer renderer, MenuScene menuScene, String path) {
         super("Replay");
@@ -43,90 +44,117 @@ public class ReplayScene extends Scene {
     @Override
     public void initialize() {
         super.initialize();
-        try {
-            RecordingStorage storage = new FileRecordingStorage();
-            Iterable<String> lines = storage.readLines(path);
+        loading = true;
+        // 在I/O线程上读取并解析录像，完成后在游戏线程上切换到回放
+        engine.getIo().submit(() -> parse(path), this::onLoaded, e -> {
+            System.err.println("Failed to load replay: " + e.getMessage());
+            if (engine.getCurrentScene() == this) {
+                engine.setScene(menuScene);
+            }
+        });
+    }
 
-            for (String line : lines) {
-                String type = RecordingJson.stripQuotes(RecordingJson.field(line, "type"));
-                if ("header".equals(type)) {
-                    screenWidth = (int) RecordingJson.parseDouble(RecordingJson.field(line, "w"));
-                    screenHeight = (int) RecordingJson.parseDouble(RecordingJson.field(line, "h"));
-                } else if ("input".equals(type)) {
-                    double t = RecordingJson.parseDouble(RecordingJson.field(line, "t"));
-                    String keysStr = RecordingJson.field(line, "keys");
-                    if (keysStr != null) {
-                        String inner = keysStr.substring(1, keysStr.length() - 1);
-                        String[] keyStrs = inner.split(",");
-                        List<Integer> keys = new ArrayList<>();
-                        for (String k : keyStrs) {
-                            String trimmed = k.trim();
-                            if (!trimmed.isEmpty()) {
-                                keys.add(Integer.parseInt(trimmed));
-                            }
+    /**
+     * 读取并解析录像文件（I/O线程，不访问场景状态）
+     */
+    private static ReplayData parse(String path) throws IOException {
+        ReplayData data = new ReplayData();
+        RecordingStorage storage = new FileRecordingStorage();
+        Iterable<String> lines = storage.readLines(path);
+
+        for (String line : lines) {
+            String type = RecordingJson.stripQuotes(RecordingJson.field(line, "type"));
+            if ("header".equals(type)) {
+                data.screenWidth = (int) RecordingJson.parseDouble(RecordingJson.field(line, "w"));
+                data.screenHeight = (int) RecordingJson.parseDouble(RecordingJson.field(line, "h"));
+            } else if ("input".equals(type)) {
+                double t = RecordingJson.parseDouble(RecordingJson.field(line, "t"));
+                String keysStr = RecordingJson.field(line, "keys");
+                if (keysStr != null) {
+                    String inner = keysStr.substring(1, keysStr.length() - 1);
+                    String[] keyStrs = inner.split(",");
+                    List<Integer> keys = new ArrayList<>();
+                    for (String k : keyStrs) {
+                        String trimmed = k.trim();
+                        if (!trimmed.isEmpty()) {
+                            keys.add(Integer.parseInt(trimmed));
                         }
-                        inputEvents.add(new InputEvent(t, keys));
                     }
-                } else if ("keyframe".equals(type)) {
-                    double t = RecordingJson.parseDouble(RecordingJson.field(line, "t"));
-                    maxTime = Math.max(maxTime, t);
-                    String entitiesStr = RecordingJson.field(line, "entities");
-                    if (entitiesStr != null) {
-                        String inner = entitiesStr.substring(1, entitiesStr.length() - 1);
-                        String[] entJsons = RecordingJson.splitTopLevel(inner);
-                        List<EntityState> states = new ArrayList<>();
-                        for (String ent : entJsons) {
-                            long id = (long) RecordingJson.parseDouble(RecordingJson.field(ent, "id"));
-                            String name = RecordingJson.stripQuotes(RecordingJson.field(ent, "name"));
-                            double x = RecordingJson.parseDouble(RecordingJson.field(ent, "x"));
-                            double y = RecordingJson.parseDouble(RecordingJson.field(ent, "y"));
-                            String rt = RecordingJson.stripQuotes(RecordingJson.field(ent, "rt"));
-                            double w = RecordingJson.parseDouble(RecordingJson.field(ent, "w"));
-                            double h = RecordingJson.parseDouble(RecordingJson.field(ent, "h"));
-                            String colorStr = RecordingJson.field(ent, "color");
-                            float[] color = null;
-                            if (colorStr != null) {
-                                String colInner = colorStr.substring(1, colorStr.length() - 1);
-                                String[] cols = colInner.split(",");
-                                color = new float[4];
-                                for (int j = 0; j < 4 && j < cols.length; j++) {
-                                    color[j] = (float) RecordingJson.parseDouble(cols[j]);
-                                }
+                    data.inputEvents.add(new InputEvent(t, keys));
+                }
+            } else if ("keyframe".equals(type)) {
+                double t = RecordingJson.parseDouble(RecordingJson.field(line, "t"));
+                data.maxTime = Math.max(data.maxTime, t);
+                String entitiesStr = RecordingJson.field(line, "entities");
+                if (entitiesStr != null) {
+                    String inner = entitiesStr.substring(1, entitiesStr.length() - 1);
+                    String[] entJsons = RecordingJson.splitTopLevel(inner);
+                    List<EntityState> states = new ArrayList<>();
+                    for (String ent : entJsons) {
+                        long id = (long) RecordingJson.parseDouble(RecordingJson.field(ent, "id"));
+                        String name = RecordingJson.stripQuotes(RecordingJson.field(ent, "name"));
+                        double x = RecordingJson.parseDouble(RecordingJson.field(ent, "x"));
+                        double y = RecordingJson.parseDouble(RecordingJson.field(ent, "y"));
+                        String rt = RecordingJson.stripQuotes(RecordingJson.field(ent, "rt"));
+                        double w = RecordingJson.parseDouble(RecordingJson.field(ent, "w"));
+                        double h = RecordingJson.parseDouble(RecordingJson.field(ent, "h"));
+                        String colorStr = RecordingJson.field(ent, "color");
+                        float[] color = null;
+                        if (colorStr != null) {
+                            String colInner = colorStr.substring(1, colorStr.length() - 1);
+                            String[] cols = colInner.split(",");
+                            color = new float[4];
+                            for (int j = 0; j < 4 && j < cols.length; j++) {
+                                color[j] = (float) RecordingJson.parseDouble(cols[j]);
                             }
-                            states.add(new EntityState(id, name, x, y, rt, w, h, color));
                         }
-                        keyframes.add(new Keyframe(t, states));
+                        states.add(new EntityState(id, name, x, y, rt, w, h, color));
                     }
+                    data.keyframes.add(new Keyframe(t, states));
                 }
-                else if ("gameover".equals(type)) {
-                        gameOverTime = RecordingJson.parseDouble(RecordingJson.field(line, "t"));
-                        String killedStr = RecordingJson.field(line, "killed");
-                        String fpsStr = RecordingJson.field(line, "fps");
-                        if (killedStr != null) enemiesKilled = (int) RecordingJson.parseDouble(killedStr);
-                        if (fpsStr != null) averageFps = RecordingJson.parseDouble(fpsStr);
-                        maxTime = Math.max(maxTime, gameOverTime);
-                    }
-
             }
-
-            keyframes.sort(Comparator.comparingDouble(k -> k.time));
-            System.out.println("Loaded " + keyframes.size() + " keyframes, maxTime=" + maxTime);
-            if (!keyframes.isEmpty()) {
-                System.out.println("First keyframe time=" + keyframes.get(0).time + ", entities=" + keyframes.get(0).states.size());
-                for (EntityState s : keyframes.get(0).states) {
-                    System.out.println("Entity id=" + s.id + ", name=" + s.name + ", rt=" + s.renderType + ", x=" + s.x + ", y=" + s.y + ", color=" + (s.color != null ? java.util.Arrays.toString(s.color) : "null"));
-                }
+            else if ("gameover".equals(type)) {
+                data.gameOverTime = RecordingJson.parseDouble(RecordingJson.field(line, "t"));
+                String killedStr = RecordingJson.field(line, "killed");
+                String fpsStr = RecordingJson.field(line, "fps");
+                if (killedStr != null) data.enemiesKilled = (int) RecordingJson.parseDouble(killedStr);
+                if (fpsStr != null) data.averageFps = RecordingJson.parseDouble(fpsStr);
+                data.maxTime = Math.max(data.maxTime, data.gameOverTime);
             }
+        }
 
-        } catch (IOException e) {
-            System.err.println("Failed to load replay: " + e.getMessage());
-            engine.setScene(menuScene);
+        data.keyframes.sort(Comparator.comparingDouble(k -> k.time));
+        return data;
+    }
+
+    /**
+     * 录像加载完成（游戏线程）
+     */
+    private void onLoaded(ReplayData data) {
+        if (engine.getCurrentScene() != this) return;
+        keyframes = data.keyframes;
+        inputEvents = data.inputEvents;
+        maxTime = data.maxTime;
+        screenWidth = data.screenWidth;
+        screenHeight = data.screenHeight;
+        gameOverTime = data.gameOverTime;
+        enemiesKilled = data.enemiesKilled;
+        averageFps = data.averageFps;
+        loading = false;
+
+        System.out.println("Loaded " + keyframes.size() + " keyframes, maxTime=" + maxTime);
+        if (!keyframes.isEmpty()) {
+            System.out.println("First keyframe time=" + keyframes.get(0).time + ", entities=" + keyframes.get(0).states.size());
+            for (EntityState s : keyframes.get(0).states) {
+                System.out.println("Entity id=" + s.id + ", name=" + s.name + ", rt=" + s.renderType + ", x=" + s.x + ", y=" + s.y + ", color=" + (s.color != null ? java.util.Arrays.toString(s.color) : "null"));
+            }
         }
     }
 
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
+        if (loading) return;
         currentTime += deltaTime;
         if (currentTime > maxTime + 1.0) {
             engine.setScene(menuScene);
@@ -136,6 +164,10 @@ public class ReplayScene extends Scene {
     @Override
     public void render() {
         renderer.drawRect(0, 0, 800, 600, 0.2f, 0.2f, 0.2f, 1.0f);
+        if (loading) {
+            renderer.drawText(330, 300, "Loading...", 1.0f, 1.0f, 1.0f, 1.0f);
+            return;
+        }
 
         // Find prev and next keyframe
         int idx = 0;
@@ -214,6 +246,20 @@ public class ReplayScene extends Scene {
         }
     }
 
+    /**
+     * 解析结果，在I/O线程上构建后整体交给游戏线程
+     */
+    private static class ReplayData {
+        List<Keyframe> keyframes = new ArrayList<>();
+        List<InputEvent> inputEvents = new ArrayList<>();
+        double maxTime = 0.0;
+        int screenWidth = 800;
+        int screenHeight = 600;
+        double gameOverTime = -1.0;
+        int enemiesKilled = 0;
+        double averageFps = 0.0;
+    }
+
     private static class Keyframe {
         double time;
         List<EntityState> states;
@@ -16,6 +16,7 @@ public class ReplaySelectionScene extends Scene {
     private GameEngine engine;
     private Renderer renderer;
     private MenuScene menuScene;
+    private boolean loading;
 
     public ReplaySelectionScene(GameEngine engine, Renderer renderer, MenuScene menuScene) {
         super("ReplaySelection");
@@ -33,9 +34,15 @@ public class ReplaySelectionScene extends Scene {
         });
         addGameObject(backButton);
 
+        // 列举录像目录放到I/O线程上，返回后在游戏线程上创建按钮
+        loading = true;
         RecordingStorage storage = new FileRecordingStorage();
-        List<File> recordings = storage.listRecordings();
+        engine.getIo().submit(storage::listRecordings, this::onRecordingsListed, Exception::printStackTrace);
+    }
 
+    private void onRecordingsListed(List<File> recordings) {
+        if (engine.getCurrentScene() != this) return;
+        loading = false;
         float yPos = 150;
         for (File file : recordings) {
             String fileName = file.getName();
@@ -49,9 +56,17 @@ public class ReplaySelectionScene extends Scene {
         }
     }
 
+    @Override
+    public boolean isIdleCapable() {
+        return true;
+    }
+
     @Override
     public void render() {
         renderer.drawRect(0, 0, 800, 600, 0.2f, 0.2f, 0.2f, 1.0f);
+        if (loading) {
+            renderer.drawText(200, 170, "Loading...", 1.0f, 1.0f, 1.0f, 1.0f);
+        }
         super.render();
     }
 }
\ No newline at end of file
@@ -2,9 +2,15 @@ package com.gameengine.scene;
 
 import com.gameengine.core.GameObject;
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentRegistry;
+import com.gameengine.core.ParallelExecutor;
+import com.gameengine.ecs.EntityRegistry;
+import com.gameengine.ecs.EntityStorage;
+import com.gameengine.ecs.PhysicsIntegrator;
+import com.gameengine.input.InputManager;
 // 移除具体游戏逻辑的import
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * 场景类，管理游戏对象和组件
@@ -12,18 +18,37 @@ import java.util.stream.Collectors;
 public class Scene {
     private String name;
     private List<GameObject> gameObjects;
+    private final List<GameObject> gameObjectsView;
     private List<GameObject> objectsToAdd;
     private List<GameObject> objectsToRemove;
     private boolean initialized;
-    // 移除未使用的组件索引
+    // 物理由 PhysicsIntegrator 在块上批量积分，关闭后回到逐组件更新
+    private boolean batchPhysics = true;
+    // 设置后批量积分按块并行，为null时在调用线程上顺序积分
+    private ParallelExecutor parallel;
+    private final EntityStorage storage;
+    private final Map<Long, EntityQuery> componentQueries;
+    // 组件ID超出签名位宽时掩码不唯一，这类查询按类型集合缓存
+    private final Map<Set<Class<?>>, EntityQuery> overflowQueries;
+    private final Map<String, EntityQuery> tagQueries;
+    private final List<EntityQuery> queries;
+    private final Queue<CommandBuffer> pendingCommands;
+    // 空闲场景请求重绘的标记，可以从任意线程设置
+    private volatile boolean invalidated;
     
     public Scene(String name) {
         this.name = name;
         this.gameObjects = new ArrayList<>();
+        this.gameObjectsView = Collections.unmodifiableList(gameObjects);
         this.objectsToAdd = new ArrayList<>();
         this.objectsToRemove = new ArrayList<>();
         this.initialized = false;
-        // 移除组件索引初始化
+        this.storage = new EntityStorage();
+        this.componentQueries = new HashMap<>();
+        this.overflowQueries = new HashMap<>();
+        this.tagQueries = new HashMap<>();
+        this.queries = new ArrayList<>();
+        this.pendingCommands = new ConcurrentLinkedQueue<>();
     }
     
     /**
@@ -40,33 +65,131 @@ public class Scene {
      * 更新场景
      */
     public void update(float deltaTime) {
+        // 回放上一轮并行任务记录的结构变更
+        playbackCommands();
+        
         // 添加新对象
         for (GameObject obj : objectsToAdd) {
-            gameObjects.add(obj);
-            if (initialized) {
-                obj.initialize();
-            }
+            attachObject(obj);
         }
         objectsToAdd.clear();
         
         // 移除标记的对象
         for (GameObject obj : objectsToRemove) {
-            gameObjects.remove(obj);
+            swapRemove(obj);
         }
         objectsToRemove.clear();
         
-        // 更新所有活跃的游戏对象
-        Iterator<GameObject> iterator = gameObjects.iterator();
-        while (iterator.hasNext()) {
-            GameObject obj = iterator.next();
+        // 更新所有活跃的游戏对象；交换删除后当前位置换成了末尾对象，需要重新检查
+        int i = 0;
+        while (i < gameObjects.size()) {
+            GameObject obj = gameObjects.get(i);
             if (obj.isActive()) {
                 obj.update(deltaTime);
+                i++;
+            } else {
+                swapRemove(obj);
+            }
+        }
+        
+        // 逐对象更新中跳过的物理组件在这里一次性积分
+        if (batchPhysics) {
+            if (parallel != null) {
+                PhysicsIntegrator.integrate(storage, deltaTime, parallel);
             } else {
-                iterator.remove();
+                PhysicsIntegrator.integrate(storage, deltaTime);
             }
         }
     }
     
+    /**
+     * 同步点：按 (group, index) 排序后依次回放所有已提交的命令缓冲
+     */
+    public void playbackCommands() {
+        if (pendingCommands.isEmpty()) return;
+        List<CommandBuffer> buffers = new ArrayList<>();
+        CommandBuffer buffer;
+        while ((buffer = pendingCommands.poll()) != null) {
+            buffers.add(buffer);
+        }
+        buffers.sort(Comparator.comparingInt(CommandBuffer::getGroup).thenComparingInt(CommandBuffer::getIndex));
+        for (CommandBuffer b : buffers) {
+            b.playback(this);
+        }
+    }
+    
+    /**
+     * 为一个并行任务创建命令缓冲；同一帧内 (group, index) 应唯一，以保证回放顺序确定
+     */
+    public CommandBuffer createCommandBuffer(int group, int index) {
+        CommandBuffer buffer = new CommandBuffer(group, index);
+        pendingCommands.add(buffer);
+        return buffer;
+    }
+    
+    /**
+     * 立即把对象加入场景（已在场景中则忽略）
+     */
+    void attachObject(GameObject obj) {
+        if (obj.getScene() == this) return;
+        obj.setSceneIndex(gameObjects.size());
+        gameObjects.add(obj);
+        onObjectAdded(obj);
+        if (initialized) {
+            obj.initialize();
+        }
+    }
+    
+    /**
+     * 立即把对象移出场景（不在场景中则忽略）
+     */
+    void detachObject(GameObject obj) {
+        swapRemove(obj);
+    }
+    
+    /**
+     * 用末尾对象填补被删除对象的位置，O(1)
+     */
+    private void swapRemove(GameObject obj) {
+        int index = obj.getSceneIndex();
+        if (obj.getScene() != this || index < 0 || index >= gameObjects.size() || gameObjects.get(index) != obj) {
+            return;
+        }
+        int last = gameObjects.size() - 1;
+        GameObject moved = gameObjects.remove(last);
+        if (index != last) {
+            gameObjects.set(index, moved);
+            moved.setSceneIndex(index);
+        }
+        obj.setSceneIndex(-1);
+        onObjectRemoved(obj);
+    }
+    
+    /**
+     * 场景是否可以空闲：内容只随输入或 invalidate 变化，引擎没有事件时停止更新和重绘
+     * 菜单等静态界面返回true，有动画或模拟的场景保持默认的false
+     */
+    public boolean isIdleCapable() {
+        return false;
+    }
+    
+    /**
+     * 请求重绘一帧（空闲场景的内容在输入之外发生变化时调用）
+     */
+    public void invalidate() {
+        invalidated = true;
+        InputManager.getInstance().wakeUp();
+    }
+    
+    /**
+     * 场景是否还需要再更新一帧：被标记失效，或有尚未加入的对象和未回放的命令；同时清除失效标记
+     */
+    public synchronized boolean consumeInvalidation() {
+        boolean pending = invalidated || !objectsToAdd.isEmpty() || !objectsToRemove.isEmpty() || !pendingCommands.isEmpty();
+        invalidated = false;
+        return pending;
+    }
+    
     /**
      * 渲染场景
      */
@@ -79,38 +202,131 @@ public class Scene {
     }
     
     /**
-     * 添加游戏对象到场景
+     * 添加游戏对象到场景（系统可能在工作线程并发调用）
      */
-    public void addGameObject(GameObject gameObject) {
+    public synchronized void addGameObject(GameObject gameObject) {
         objectsToAdd.add(gameObject);
     }
     
     /**
-     * 根据组件类型查找游戏对象
+     * 根据组件类型查找游戏对象（缓存查询的只读视图）
      */
     public <T extends Component<T>> List<GameObject> findGameObjectsByComponent(Class<T> componentType) {
-        return gameObjects.stream()
-            .filter(obj -> obj.hasComponent(componentType))
-            .collect(Collectors.toList());
+        return query(componentType).getMembers();
+    }
+    
+    /**
+     * 根据标签（对象名称）查找游戏对象（缓存查询的只读视图）
+     */
+    public List<GameObject> findGameObjectsByTag(String tag) {
+        return queryByTag(tag).getMembers();
     }
     
     /**
      * 获取所有具有指定组件的游戏对象
      */
     public <T extends Component<T>> List<T> getComponents(Class<T> componentType) {
-        return findGameObjectsByComponent(componentType).stream()
-            .map(obj -> obj.getComponent(componentType))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        return query(componentType).components(componentType);
+    }
+    
+    /**
+     * 获取（必要时注册）按组件组合匹配的缓存查询
+     */
+    public synchronized EntityQuery query(Class<?>... componentTypes) {
+        long mask = 0L;
+        boolean overflow = false;
+        for (Class<?> type : componentTypes) {
+            long bit = ComponentRegistry.bitOf(type);
+            if (bit == 0L) overflow = true;
+            mask |= bit;
+        }
+        if (overflow) {
+            Set<Class<?>> key = new HashSet<>(Arrays.asList(componentTypes));
+            EntityQuery query = overflowQueries.get(key);
+            if (query == null) {
+                query = register(new EntityQuery(componentTypes, null));
+                overflowQueries.put(key, query);
+            }
+            return query;
+        }
+        EntityQuery query = componentQueries.get(mask);
+        if (query == null) {
+            query = register(new EntityQuery(componentTypes, null));
+            componentQueries.put(mask, query);
+        }
+        return query;
+    }
+    
+    /**
+     * 获取（必要时注册）按标签匹配的缓存查询
+     */
+    public synchronized EntityQuery queryByTag(String tag) {
+        EntityQuery query = tagQueries.get(tag);
+        if (query == null) {
+            query = register(new EntityQuery(new Class<?>[0], tag));
+            tagQueries.put(tag, query);
+        }
+        return query;
+    }
+    
+    private EntityQuery register(EntityQuery query) {
+        for (GameObject obj : gameObjects) {
+            query.refresh(obj);
+        }
+        queries.add(query);
+        return query;
+    }
+    
+    /**
+     * 对象的组件组合或名称变化时由 GameObject 调用
+     */
+    public void onObjectChanged(GameObject obj) {
+        storage.migrate(obj);
+        for (EntityQuery query : queries) {
+            query.refresh(obj);
+        }
+    }
+    
+    private void onObjectAdded(GameObject obj) {
+        EntityRegistry registry = EntityRegistry.getInstance();
+        if (registry.resolve(obj.getHandle()) != obj) {
+            obj.setHandle(registry.allocate(obj));
+        }
+        obj.setScene(this);
+        storage.attach(obj);
+        for (EntityQuery query : queries) {
+            query.refresh(obj);
+        }
+    }
+    
+    private void onObjectRemoved(GameObject obj) {
+        for (EntityQuery query : queries) {
+            query.remove(obj);
+        }
+        storage.detach(obj);
+        EntityRegistry.getInstance().release(obj.getHandle());
+        obj.setScene(null);
+        obj.onRemoved();
     }
     
     /**
      * 清空场景
      */
     public void clear() {
+        storage.clear();
+        for (GameObject obj : gameObjects) {
+            EntityRegistry.getInstance().release(obj.getHandle());
+            obj.setScene(null);
+            obj.setSceneIndex(-1);
+            obj.onRemoved();
+        }
+        for (EntityQuery query : queries) {
+            query.clear();
+        }
         gameObjects.clear();
         objectsToAdd.clear();
         objectsToRemove.clear();
+        pendingCommands.clear();
     }
     
     /**
@@ -121,16 +337,45 @@ public class Scene {
     }
     
     /**
-     * 获取所有游戏对象
+     * 开关物理批量积分：开启时各物理组件的 update 不做事，场景在对象更新后统一积分
+     */
+    public void setBatchPhysics(boolean batchPhysics) {
+        this.batchPhysics = batchPhysics;
+    }
+    
+    public boolean isBatchPhysics() {
+        return batchPhysics;
+    }
+    
+    /**
+     * 设置批量积分使用的并行执行器，传入null则顺序积分
+     */
+    public void setParallel(ParallelExecutor parallel) {
+        this.parallel = parallel;
+    }
+    
+    public ParallelExecutor getParallel() {
+        return parallel;
+    }
+    
+    /**
+     * 获取场景的原型存储
+     */
+    public EntityStorage getStorage() {
+        return storage;
+    }
+    
+    /**
+     * 获取所有游戏对象（只读视图，不复制）
      */
     public List<GameObject> getGameObjects() {
-        return new ArrayList<>(gameObjects);
+        return gameObjectsView;
     }
     /**
      * 从场景中移除游戏对象
      */
-    public void removeGameObject(GameObject gameObject) {
-        if (gameObjects.contains(gameObject)) {
+    public synchronized void removeGameObject(GameObject gameObject) {
+        if (gameObject.getScene() == this) {
             objectsToRemove.add(gameObject);
         }
     }
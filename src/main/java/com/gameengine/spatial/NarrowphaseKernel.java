@@ -0,0 +1,89 @@
+package com.gameengine.spatial;
+
+import com.gameengine.math.Vector2;
+
+/**
+ * 窄相检测内核：一个查询圆对一段连续存放的圆心/半径数组做距离检测
+ * 命中条件与碰撞系统相同：dist(查询点, 圆心) < 半径 + 查询半径 + 边距，按下标升序报告命中
+ * 默认是标量实现；编译时加入了 jdk.incubator.vector 且运行时启用了该模块时，改用 SIMD 实现（VectorNarrowphase），
+ * 它先按平方距离成批筛选，再对候选逐个用标量公式复核，结果与标量实现完全一致
+ * 系统属性 gameengine.simd=false 可以强制使用标量实现
+ */
+public abstract class NarrowphaseKernel {
+    /**
+     * 命中回调，返回true表示停止扫描
+     */
+    @FunctionalInterface
+    public interface HitVisitor {
+        boolean hit(int index);
+    }
+
+    private static final NarrowphaseKernel SCALAR = new NarrowphaseKernel() {
+        @Override
+        public int scan(float x, float y, float radius, float margin, float[] xs, float[] ys, float[] rs,
+                        int from, int to, HitVisitor visitor) {
+            return scanScalar(x, y, radius, margin, xs, ys, rs, from, to, visitor);
+        }
+
+        @Override
+        public String getName() {
+            return "scalar";
+        }
+    };
+
+    private static final NarrowphaseKernel DEFAULT = load();
+
+    /**
+     * 可用的最快实现
+     */
+    public static NarrowphaseKernel get() {
+        return DEFAULT;
+    }
+
+    /**
+     * 标量实现
+     */
+    public static NarrowphaseKernel scalar() {
+        return SCALAR;
+    }
+
+    private static NarrowphaseKernel load() {
+        if (!Boolean.parseBoolean(System.getProperty("gameengine.simd", "true"))) {
+            return SCALAR;
+        }
+        try {
+            // 反射加载：没有编译 SIMD 实现或运行时没有 --add-modules jdk.incubator.vector 时退回标量实现
+            Class<?> type = Class.forName("com.gameengine.spatial.VectorNarrowphase");
+            return (NarrowphaseKernel) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * 扫描 [from, to) 区间，对每个命中的下标按升序调用 visitor，visitor 返回true时停止
+     * 圆心为 NaN 的项永远不会命中，可以用来占位
+     * @return 使扫描停止的下标，扫描完没有停止返回-1
+     */
+    public abstract int scan(float x, float y, float radius, float margin, float[] xs, float[] ys, float[] rs,
+                             int from, int to, HitVisitor visitor);
+
+    public abstract String getName();
+
+    /**
+     * 单个元素的精确检测，与碰撞系统的浮点运算顺序相同
+     */
+    protected static boolean hits(float x, float y, float radius, float margin, float cx, float cy, float r) {
+        return Vector2.distance(x, y, cx, cy) < r + radius + margin;
+    }
+
+    protected static int scanScalar(float x, float y, float radius, float margin, float[] xs, float[] ys, float[] rs,
+                                    int from, int to, HitVisitor visitor) {
+        for (int i = from; i < to; i++) {
+            if (hits(x, y, radius, margin, xs[i], ys[i], rs[i]) && visitor.hit(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
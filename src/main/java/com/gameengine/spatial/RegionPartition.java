@@ -0,0 +1,306 @@
+package com.gameengine.spatial;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.ParallelExecutor;
+import com.gameengine.ecs.EntityHandle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 空间区域划分：把世界切成 columns x rows 个矩形区域，每个区域拥有中心落在其中的实体
+ * 区域归属跨帧保持，实体越过边界时迁移到相应区域；区域边缘附近的邻区实体作为幽灵副本拉取过来，
+ * 这样每个区域只看自己的实体和幽灵，就能完成距离小于幽灵边距的全部检测
+ * 中心取上一模拟步的位置快照加碰撞体偏移，与碰撞系统一致；各区域在不同工作线程上并行处理
+ * 目前只有碰撞检测按区域分解；积分和边界处理按原型块并行，不按区域划分
+ */
+public class RegionPartition {
+    /**
+     * 一个矩形区域，最外圈的区域向世界外无限延伸
+     */
+    public static final class Region {
+        private final int id;
+        private final float minX;
+        private final float minY;
+        private final float maxX;
+        private final float maxY;
+        private final List<GameObject> owned = new ArrayList<>();
+        private final List<GameObject> ghosts = new ArrayList<>();
+        private final List<GameObject> outgoing = new ArrayList<>();
+        private float maxRadius;
+
+        Region(int id, float minX, float minY, float maxX, float maxY) {
+            this.id = id;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        /**
+         * 点到区域矩形的距离，点在区域内为0
+         */
+        float distanceTo(float x, float y) {
+            float dx = Math.max(0, Math.max(minX - x, x - maxX));
+            float dy = Math.max(0, Math.max(minY - y, y - maxY));
+            return (float) Math.sqrt(dx * dx + dy * dy);
+        }
+
+        /**
+         * 两个区域矩形之间的距离
+         */
+        float distanceTo(Region other) {
+            float dx = Math.max(0, Math.max(other.minX - maxX, minX - other.maxX));
+            float dy = Math.max(0, Math.max(other.minY - maxY, minY - other.maxY));
+            return (float) Math.sqrt(dx * dx + dy * dy);
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * 中心在本区域内的实体
+         */
+        public List<GameObject> getOwned() {
+            return Collections.unmodifiableList(owned);
+        }
+
+        /**
+         * 中心在邻区、但离本区域不超过幽灵边距的实体
+         */
+        public List<GameObject> getGhosts() {
+            return Collections.unmodifiableList(ghosts);
+        }
+    }
+
+    private final float cellWidth;
+    private final float cellHeight;
+    private final int columns;
+    private final int rows;
+    private final Region[] regions;
+    private final ParallelExecutor parallel;
+    private final List<GameObject> arrivals = new ArrayList<>();
+    // 按实体槽位记录的数据
+    private int[] handles = new int[0];
+    private int[] stamps = new int[0];
+    private int[] regionOf = new int[0];
+    private int[] indices = new int[0];
+    private float[] centerX = new float[0];
+    private float[] centerY = new float[0];
+    private float[] radius = new float[0];
+    private ColliderComponent[] colliders = new ColliderComponent[0];
+    private int epoch;
+    private float maxRadius;
+    private long migrations;
+
+    public RegionPartition(float worldWidth, float worldHeight, int columns, int rows, ParallelExecutor parallel) {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("region grid must have at least one column and one row");
+        }
+        this.cellWidth = worldWidth / columns;
+        this.cellHeight = worldHeight / rows;
+        this.columns = columns;
+        this.rows = rows;
+        this.parallel = parallel;
+        this.regions = new Region[columns * rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                float minX = c == 0 ? Float.NEGATIVE_INFINITY : c * cellWidth;
+                float minY = r == 0 ? Float.NEGATIVE_INFINITY : r * cellHeight;
+                float maxX = c == columns - 1 ? Float.POSITIVE_INFINITY : (c + 1) * cellWidth;
+                float maxY = r == rows - 1 ? Float.POSITIVE_INFINITY : (r + 1) * cellHeight;
+                int id = r * columns + c;
+                regions[id] = new Region(id, minX, minY, maxX, maxY);
+            }
+        }
+    }
+
+    /**
+     * 按当前成员列表更新区域归属：移除已离开的实体，越界的实体迁移到新区域，新实体直接放入所在区域
+     */
+    public void update(List<GameObject> entities) {
+        epoch++;
+        arrivals.clear();
+        int n = entities.size();
+        for (int i = 0; i < n; i++) {
+            GameObject obj = entities.get(i);
+            int handle = obj.getHandle();
+            int slot = EntityHandle.index(handle);
+            ensureCapacity(slot + 1);
+            if (handles[slot] != handle || regionOf[slot] < 0) {
+                handles[slot] = handle;
+                regionOf[slot] = -1;
+                arrivals.add(obj);
+            }
+            stamps[slot] = epoch;
+            indices[slot] = i;
+        }
+
+        // 各区域并行检查自己的实体，离开成员列表的丢弃，越过边界的放入待迁出列表
+        parallel.parallelFor(0, regions.length, 1, (from, to) -> {
+            for (int r = from; r < to; r++) {
+                Region region = regions[r];
+                region.outgoing.clear();
+                region.maxRadius = 0;
+                List<GameObject> owned = region.owned;
+                int kept = 0;
+                for (int j = 0, size = owned.size(); j < size; j++) {
+                    GameObject obj = owned.get(j);
+                    int handle = obj.getHandle();
+                    int slot = EntityHandle.index(handle);
+                    if (handles[slot] != handle || stamps[slot] != epoch || !measure(obj, slot)) {
+                        if (handles[slot] == handle) {
+                            regionOf[slot] = -1;
+                        }
+                        continue;
+                    }
+                    if (regionAt(centerX[slot], centerY[slot]) != r) {
+                        region.outgoing.add(obj);
+                        continue;
+                    }
+                    region.maxRadius = Math.max(region.maxRadius, radius[slot]);
+                    owned.set(kept++, obj);
+                }
+                owned.subList(kept, owned.size()).clear();
+            }
+        });
+
+        // 迁移和新实体在调用线程上按区域顺序投递，结果确定
+        maxRadius = 0;
+        for (Region region : regions) {
+            maxRadius = Math.max(maxRadius, region.maxRadius);
+            for (GameObject obj : region.outgoing) {
+                place(obj);
+                migrations++;
+            }
+            region.outgoing.clear();
+        }
+        for (GameObject obj : arrivals) {
+            int slot = EntityHandle.index(obj.getHandle());
+            if (measure(obj, slot)) {
+                place(obj);
+            }
+        }
+    }
+
+    /**
+     * 交换幽灵：每个区域从附近区域拉取离本区域边界小于 margin 的实体
+     * 只读其他区域的数据，各区域并行处理互不干扰
+     */
+    public void exchangeGhosts(float margin) {
+        parallel.parallelFor(0, regions.length, 1, (from, to) -> {
+            for (int r = from; r < to; r++) {
+                Region region = regions[r];
+                region.ghosts.clear();
+                for (Region other : regions) {
+                    if (other == region || region.distanceTo(other) >= margin) continue;
+                    for (GameObject obj : other.owned) {
+                        int slot = EntityHandle.index(obj.getHandle());
+                        if (region.distanceTo(centerX[slot], centerY[slot]) < margin) {
+                            region.ghosts.add(obj);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private void place(GameObject obj) {
+        int slot = EntityHandle.index(obj.getHandle());
+        int r = regionAt(centerX[slot], centerY[slot]);
+        regionOf[slot] = r;
+        regions[r].owned.add(obj);
+        maxRadius = Math.max(maxRadius, radius[slot]);
+    }
+
+    /**
+     * 计算实体的中心和半径，缺少变换组件或没有启用的碰撞体时返回false
+     */
+    private boolean measure(GameObject obj, int slot) {
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+        if (transform == null || collider == null || !collider.isEnabled()) return false;
+        centerX[slot] = transform.getPreviousX() + collider.getOffsetX();
+        centerY[slot] = transform.getPreviousY() + collider.getOffsetY();
+        radius[slot] = collider.getBoundingRadius();
+        colliders[slot] = collider;
+        return true;
+    }
+
+    private int regionAt(float x, float y) {
+        int c = Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellWidth)));
+        int r = Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellHeight)));
+        return r * columns + c;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= handles.length) return;
+        int size = Math.max(capacity, handles.length * 2);
+        handles = Arrays.copyOf(handles, size);
+        stamps = Arrays.copyOf(stamps, size);
+        int old = regionOf.length;
+        regionOf = Arrays.copyOf(regionOf, size);
+        Arrays.fill(regionOf, old, size, -1);
+        indices = Arrays.copyOf(indices, size);
+        centerX = Arrays.copyOf(centerX, size);
+        centerY = Arrays.copyOf(centerY, size);
+        radius = Arrays.copyOf(radius, size);
+        colliders = Arrays.copyOf(colliders, size);
+    }
+
+    public Region[] getRegions() {
+        return regions;
+    }
+
+    public int getRegionCount() {
+        return regions.length;
+    }
+
+    /**
+     * 实体中心（上一模拟步快照）的 x 坐标
+     */
+    public float centerX(GameObject obj) {
+        return centerX[EntityHandle.index(obj.getHandle())];
+    }
+
+    public float centerY(GameObject obj) {
+        return centerY[EntityHandle.index(obj.getHandle())];
+    }
+
+    /**
+     * 碰撞体的外接圆半径
+     */
+    public float radius(GameObject obj) {
+        return radius[EntityHandle.index(obj.getHandle())];
+    }
+
+    public ColliderComponent collider(GameObject obj) {
+        return colliders[EntityHandle.index(obj.getHandle())];
+    }
+
+    /**
+     * 实体在最近一次 update 传入的成员列表中的下标
+     */
+    public int indexOf(GameObject obj) {
+        return indices[EntityHandle.index(obj.getHandle())];
+    }
+
+    /**
+     * 所有实体中最大的碰撞半径，用于确定幽灵边距
+     */
+    public float getMaxRadius() {
+        return maxRadius;
+    }
+
+    /**
+     * 累计迁移次数
+     */
+    public long getMigrations() {
+        return migrations;
+    }
+}
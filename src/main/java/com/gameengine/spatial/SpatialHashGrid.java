@@ -0,0 +1,300 @@
+package com.gameengine.spatial;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * 均匀网格空间哈希：按实体中心所在的格子分桶，查询只访问范围覆盖的格子
+ * 格子坐标哈希到 2 的幂大小的桶表，世界没有边界；每帧用计数排序整体重建，桶内实体保持成员列表的顺序
+ * 中心取上一模拟步的位置快照加碰撞体偏移、半径取碰撞体的外接圆半径，与碰撞系统一致
+ * 参与查询的实体的中心和半径另按桶顺序连续存放一份，窄相内核可以直接在桶的区间上成批检测（scanNear）
+ * 重建后只读，可以从多个线程同时查询
+ */
+public class SpatialHashGrid {
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final List<GameObject> entities = new ArrayList<>();
+    // 按成员列表下标记录的数据
+    private float[] centerX = new float[0];
+    private float[] centerY = new float[0];
+    private float[] radius = new float[0];
+    private ColliderComponent[] colliders = new ColliderComponent[0];
+    private int[] cellX = new int[0];
+    private int[] cellY = new int[0];
+    private boolean[] valid = new boolean[0];
+    // 桶表：bucketStart[b] 到 bucketStart[b + 1] 是桶 b 里的实体下标（升序）
+    private int[] bucketStart = new int[1];
+    private int[] items = new int[0];
+    // 按桶顺序存放的中心和半径，与 items 一一对应
+    private float[] itemX = new float[0];
+    private float[] itemY = new float[0];
+    private float[] itemRadius = new float[0];
+    private int bucketMask;
+    private int count;
+    private float maxRadius;
+
+    /**
+     * @param cellSize 格子边长，取与常用查询半径相当的值
+     */
+    public SpatialHashGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0f / cellSize;
+    }
+
+    /**
+     * 按成员列表重建网格；缺少变换组件、没有启用的碰撞体的实体不参与查询
+     */
+    public void rebuild(List<GameObject> members) {
+        entities.clear();
+        entities.addAll(members);
+        int n = entities.size();
+        ensureCapacity(n);
+        int buckets = Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1;
+        bucketMask = buckets - 1;
+        if (bucketStart.length < buckets + 1) {
+            bucketStart = new int[buckets + 1];
+        } else {
+            Arrays.fill(bucketStart, 0, buckets + 1, 0);
+        }
+
+        count = 0;
+        maxRadius = 0;
+        for (int i = 0; i < n; i++) {
+            GameObject obj = entities.get(i);
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+            if (transform == null || collider == null || !collider.isEnabled()) {
+                valid[i] = false;
+                colliders[i] = null;
+                continue;
+            }
+            centerX[i] = transform.getPreviousX() + collider.getOffsetX();
+            centerY[i] = transform.getPreviousY() + collider.getOffsetY();
+            radius[i] = collider.getBoundingRadius();
+            colliders[i] = collider;
+            cellX[i] = cellOf(centerX[i]);
+            cellY[i] = cellOf(centerY[i]);
+            valid[i] = true;
+            maxRadius = Math.max(maxRadius, radius[i]);
+            bucketStart[bucket(cellX[i], cellY[i]) + 1]++;
+            count++;
+        }
+
+        // 计数排序：前缀和得到每个桶的起点，再按下标顺序填入
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        if (items.length < count) {
+            int capacity = Math.max(count, items.length * 2);
+            items = new int[capacity];
+            itemX = new float[capacity];
+            itemY = new float[capacity];
+            itemRadius = new float[capacity];
+        }
+        int[] fill = Arrays.copyOf(bucketStart, buckets);
+        for (int i = 0; i < n; i++) {
+            if (valid[i]) {
+                int k = fill[bucket(cellX[i], cellY[i])]++;
+                items[k] = i;
+                itemX[k] = centerX[i];
+                itemY[k] = centerY[i];
+                itemRadius[k] = radius[i];
+            }
+        }
+    }
+
+    /**
+     * 访问中心可能在 (x, y) 周围 reach 范围内的实体下标：范围覆盖的格子里的全部实体
+     * 结果是候选集，调用方自行做精确检测；同一实体只访问一次，顺序不保证
+     */
+    public void forEachNear(float x, float y, float reach, IntConsumer visitor) {
+        forEachInCells(cellOf(x - reach), cellOf(y - reach), cellOf(x + reach), cellOf(y + reach), visitor);
+    }
+
+    private void forEachInCells(int minCellX, int minCellY, int maxCellX, int maxCellY, IntConsumer visitor) {
+        long cells = ((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1);
+        if (cells > bucketMask + 1) {
+            // 范围比桶表还大，直接扫描全部实体更省
+            for (int i = 0, n = entities.size(); i < n; i++) {
+                if (valid[i] && cellX[i] >= minCellX && cellX[i] <= maxCellX
+                        && cellY[i] >= minCellY && cellY[i] <= maxCellY) {
+                    visitor.accept(i);
+                }
+            }
+            return;
+        }
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                int b = bucket(cx, cy);
+                for (int k = bucketStart[b], end = bucketStart[b + 1]; k < end; k++) {
+                    int i = items[k];
+                    // 不同格子可能哈希到同一个桶，只取真正在这个格子里的
+                    if (cellX[i] == cx && cellY[i] == cy) {
+                        visitor.accept(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 用窄相内核检测 (x, y) 处半径为 radius 的查询圆与 reach 范围覆盖的格子里的实体：
+     * 内核直接扫描桶内连续存放的中心和半径，不逐个收集候选；对满足 距离 < 半径之和 + margin 的实体调用 visitor（实体下标，顺序不保证）
+     * 与查询格子哈希到同一个桶的其他格子也会被扫描，只有实体真正所在的格子在范围内时才报告，同一实体只报告一次
+     * reach 应不小于 radius + 最大半径 + margin，否则可能漏掉接触
+     */
+    public void scanNear(float x, float y, float reach, float radius, float margin,
+                         NarrowphaseKernel kernel, IntPredicate visitor) {
+        int minCellX = cellOf(x - reach);
+        int minCellY = cellOf(y - reach);
+        int maxCellX = cellOf(x + reach);
+        int maxCellY = cellOf(y + reach);
+        long cells = ((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1);
+        if (cells > bucketMask + 1) {
+            // 范围比桶表还大，整体扫描一遍，每个实体只出现一次
+            kernel.scan(x, y, radius, margin, itemX, itemY, itemRadius, 0, count, k -> visitor.test(items[k]));
+            return;
+        }
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                int b = bucket(cx, cy);
+                int column = cx;
+                int row = cy;
+                kernel.scan(x, y, radius, margin, itemX, itemY, itemRadius, bucketStart[b], bucketStart[b + 1], k -> {
+                    int i = items[k];
+                    // 只在实体所在的格子上报告，桶被多个格子共用时不会重复
+                    return cellX[i] == column && cellY[i] == row && visitor.test(i);
+                });
+            }
+        }
+    }
+
+    /**
+     * 中心到 (x, y) 的距离小于 radius 的实体，按成员列表顺序追加到 result
+     */
+    public void queryRadius(float x, float y, float radius, List<GameObject> result) {
+        List<Integer> found = new ArrayList<>();
+        // 多留1像素，避免浮点舍入漏掉恰好在格子边界上的实体
+        forEachNear(x, y, radius + 1, i -> {
+            if (distance(x, y, centerX[i], centerY[i]) < radius) {
+                found.add(i);
+            }
+        });
+        appendSorted(found, result);
+    }
+
+    /**
+     * 中心落在矩形 [minX, maxX] x [minY, maxY] 内的实体，按成员列表顺序追加到 result
+     */
+    public void queryRect(float minX, float minY, float maxX, float maxY, List<GameObject> result) {
+        List<Integer> found = new ArrayList<>();
+        forEachInCells(cellOf(minX) - 1, cellOf(minY) - 1, cellOf(maxX) + 1, cellOf(maxY) + 1, i -> {
+            if (centerX[i] >= minX && centerX[i] <= maxX && centerY[i] >= minY && centerY[i] <= maxY) {
+                found.add(i);
+            }
+        });
+        appendSorted(found, result);
+    }
+
+    private void appendSorted(List<Integer> found, List<GameObject> result) {
+        found.sort(null);
+        for (int i : found) {
+            result.add(entities.get(i));
+        }
+    }
+
+    private int cellOf(float coordinate) {
+        double cell = Math.floor(coordinate * (double) inverseCellSize);
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, cell));
+    }
+
+    private int bucket(int cx, int cy) {
+        int h = cx * 0x9E3779B1 ^ cy * 0x85EBCA6B;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= centerX.length) return;
+        int size = Math.max(capacity, centerX.length * 2);
+        centerX = Arrays.copyOf(centerX, size);
+        centerY = Arrays.copyOf(centerY, size);
+        radius = Arrays.copyOf(radius, size);
+        colliders = Arrays.copyOf(colliders, size);
+        cellX = Arrays.copyOf(cellX, size);
+        cellY = Arrays.copyOf(cellY, size);
+        valid = Arrays.copyOf(valid, size);
+    }
+
+    /**
+     * 与 Vector2.distance 相同的计算，不分配对象
+     */
+    public static float distance(float ax, float ay, float bx, float by) {
+        return Vector2.distance(ax, ay, bx, by);
+    }
+
+    /**
+     * 最近一次重建时的成员数量（含不参与查询的实体）
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * 参与查询的实体数量
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public GameObject get(int index) {
+        return entities.get(index);
+    }
+
+    public float centerX(int index) {
+        return centerX[index];
+    }
+
+    public float centerY(int index) {
+        return centerY[index];
+    }
+
+    /**
+     * 碰撞体的外接圆半径
+     */
+    public float radius(int index) {
+        return radius[index];
+    }
+
+    public ColliderComponent collider(int index) {
+        return colliders[index];
+    }
+
+    /**
+     * 实体是否参与查询（有变换组件和启用的碰撞体）
+     */
+    public boolean isValid(int index) {
+        return valid[index];
+    }
+
+    /**
+     * 所有实体中最大的碰撞半径，用于确定查询范围
+     */
+    public float getMaxRadius() {
+        return maxRadius;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+}
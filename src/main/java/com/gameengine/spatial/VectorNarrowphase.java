@@ -0,0 +1,47 @@
+package com.gameengine.spatial;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 jdk.incubator.vector 的窄相检测内核，由 NarrowphaseKernel 反射加载
+ * 每次取一整条向量宽度的圆心，算出平方距离后与略微放宽的平方阈值比较，不开方；
+ * 放宽量远大于浮点舍入误差，不会漏掉命中，候选再用标量公式复核，所以结果与标量实现逐位一致
+ * 编译和运行都需要 --add-modules jdk.incubator.vector
+ */
+public final class VectorNarrowphase extends NarrowphaseKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    // 平方阈值的放宽系数，覆盖开方和平方各自的舍入误差
+    private static final float PREFILTER_SLACK = 1.00001f;
+
+    @Override
+    public int scan(float x, float y, float radius, float margin, float[] xs, float[] ys, float[] rs,
+                    int from, int to, HitVisitor visitor) {
+        int lanes = SPECIES.length();
+        int upper = from + SPECIES.loopBound(to - from);
+        FloatVector qx = FloatVector.broadcast(SPECIES, x);
+        FloatVector qy = FloatVector.broadcast(SPECIES, y);
+        int i = from;
+        for (; i < upper; i += lanes) {
+            FloatVector dx = qx.sub(FloatVector.fromArray(SPECIES, xs, i));
+            FloatVector dy = qy.sub(FloatVector.fromArray(SPECIES, ys, i));
+            FloatVector d2 = dx.mul(dx).add(dy.mul(dy));
+            FloatVector threshold = FloatVector.fromArray(SPECIES, rs, i).add(radius).add(margin);
+            VectorMask<Float> candidates = d2.lt(threshold.mul(threshold).mul(PREFILTER_SLACK));
+            if (!candidates.anyTrue()) continue;
+            for (long bits = candidates.toLong(); bits != 0; bits &= bits - 1) {
+                int index = i + Long.numberOfTrailingZeros(bits);
+                if (hits(x, y, radius, margin, xs[index], ys[index], rs[index]) && visitor.hit(index)) {
+                    return index;
+                }
+            }
+        }
+        return scanScalar(x, y, radius, margin, xs, ys, rs, i, to, visitor);
+    }
+
+    @Override
+    public String getName() {
+        return "vector(" + SPECIES.length() + " lanes)";
+    }
+}
@@ -0,0 +1,85 @@
+package com.gameengine.systems;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.ParallelExecutor;
+import com.gameengine.ecs.Archetype;
+import com.gameengine.ecs.ArchetypeChunk;
+import com.gameengine.ecs.GameSystem;
+import com.gameengine.scene.CommandBuffer;
+import com.gameengine.scene.EntityQuery;
+import com.gameengine.scene.Scene;
+
+import java.util.List;
+
+/**
+ * 边界系统：子弹出界移除，其余对象在边界反弹
+ */
+public class BoundarySystem extends GameSystem {
+    private final GameLogic logic;
+    private final Scene scene;
+    private final ParallelExecutor parallel;
+
+    public BoundarySystem(GameLogic logic) {
+        super("Boundary");
+        this.logic = logic;
+        this.scene = logic.getScene();
+        this.parallel = logic.getParallel();
+        writes(TransformComponent.class, PhysicsComponent.class);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        if (logic.isGameOver()) return;
+
+        EntityQuery bullets = scene.queryByTag("Bullet");
+        EntityQuery enemyBullets = scene.queryByTag("EnemyBullet");
+
+        // 直接遍历原型块中连续存放的位置和速度
+        List<ArchetypeChunk> chunks = scene.getStorage().getChunks(Archetype.TRANSFORM | Archetype.PHYSICS);
+
+        // 按块并行（一个块就是足够大的工作单元），出界的子弹记录到该块自己的命令缓冲
+        parallel.parallelFor(0, chunks.size(), 1, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                ArchetypeChunk chunk = chunks.get(c);
+                CommandBuffer commands = scene.createCommandBuffer(getOrder(), c);
+                float[] xs = chunk.x;
+                float[] ys = chunk.y;
+                float[] vxs = chunk.vx;
+                float[] vys = chunk.vy;
+                for (int j = 0, n = chunk.size(); j < n; j++) {
+                    GameObject owner = chunk.getEntity(j);
+                    float x = xs[j];
+                    float y = ys[j];
+                    if (bullets.contains(owner) || enemyBullets.contains(owner)) {
+                        if (x < 0 || x > 800 || y < 0 || y > 600) {
+                            commands.destroy(owner);
+                        }
+                    } else {
+                        boolean bounced = false;
+                        if (x <= 0 || x >= 800 - 15) {
+                            vxs[j] = -vxs[j];
+                            bounced = true;
+                        }
+                        if (y <= 0 || y >= 600 - 15) {
+                            vys[j] = -vys[j];
+                            bounced = true;
+                        }
+                        if (!bounced) continue;
+                        if (x < 0) x = 0;
+                        if (y < 0) y = 0;
+                        if (x > 800 - 15) x = 800 - 15;
+                        if (y > 600 - 15) y = 600 - 15;
+                        xs[j] = x;
+                        ys[j] = y;
+                        // 直接写了块中的列，需要手动标记变更
+                        owner.getComponent(TransformComponent.class).markChanged();
+                        owner.getComponent(PhysicsComponent.class).markChanged();
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,142 @@
+package com.gameengine.systems;
+
+import com.gameengine.components.ColliderComponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 碰撞层矩阵：哪些层之间做碰撞检测、接触边距多大，以及检测的先后顺序
+ * 每条规则对应碰撞系统的一趟检测，按加入顺序执行，前面的检测移除的实体不再参与后面的检测
+ * 规则的 A 层是查询方：没有生命值的 A 只结算列表下标最小的一个接触，有生命值的 A 结算全部接触；
+ * 同层规则检测层内两两之间的接触
+ */
+public class CollisionMatrix {
+    /**
+     * 一条层对规则
+     */
+    public static final class Rule {
+        private final int layerA;
+        private final int layerB;
+        private final float margin;
+
+        Rule(int layerA, int layerB, float margin) {
+            this.layerA = layerA;
+            this.layerB = layerB;
+            this.margin = margin;
+        }
+
+        public int getLayerA() {
+            return layerA;
+        }
+
+        public int getLayerB() {
+            return layerB;
+        }
+
+        /**
+         * 碰撞体间距小于该值即算接触
+         */
+        public float getMargin() {
+            return margin;
+        }
+
+        public boolean isSameLayer() {
+            return layerA == layerB;
+        }
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+    // 按层下标记录的层对位图，pairs[a] 的第 b 位表示 a、b 两层之间有规则
+    private final int[] pairs = new int[Integer.SIZE];
+    private int layers;
+
+    /**
+     * 游戏默认的规则：玩家-敌人、玩家子弹-敌人、玩家子弹之间、敌人子弹-玩家、敌人子弹之间
+     */
+    public static CollisionMatrix createDefault() {
+        return new CollisionMatrix()
+                .enable(ColliderComponent.LAYER_PLAYER, ColliderComponent.LAYER_ENEMY, 0)
+                .enable(ColliderComponent.LAYER_PLAYER_BULLET, ColliderComponent.LAYER_ENEMY, 3)
+                .enable(ColliderComponent.LAYER_PLAYER_BULLET, ColliderComponent.LAYER_PLAYER_BULLET, 2)
+                .enable(ColliderComponent.LAYER_ENEMY_BULLET, ColliderComponent.LAYER_PLAYER, 3)
+                .enable(ColliderComponent.LAYER_ENEMY_BULLET, ColliderComponent.LAYER_ENEMY_BULLET, 2);
+    }
+
+    /**
+     * 在末尾加入一条规则；两层之间已有规则时原位替换
+     */
+    public synchronized CollisionMatrix enable(int layerA, int layerB, float margin) {
+        int a = indexOf(layerA);
+        int b = indexOf(layerB);
+        Rule rule = new Rule(layerA, layerB, margin);
+        int existing = find(layerA, layerB);
+        if (existing >= 0) {
+            rules.set(existing, rule);
+        } else {
+            rules.add(rule);
+        }
+        pairs[a] |= layerB;
+        pairs[b] |= layerA;
+        layers |= layerA | layerB;
+        return this;
+    }
+
+    /**
+     * 移除两层之间的规则
+     */
+    public synchronized CollisionMatrix disable(int layerA, int layerB) {
+        int existing = find(layerA, layerB);
+        if (existing < 0) return this;
+        rules.remove(existing);
+        pairs[indexOf(layerA)] &= ~layerB;
+        pairs[indexOf(layerB)] &= ~layerA;
+        layers = 0;
+        for (Rule rule : rules) {
+            layers |= rule.layerA | rule.layerB;
+        }
+        return this;
+    }
+
+    private int find(int layerA, int layerB) {
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            if ((rule.layerA == layerA && rule.layerB == layerB) || (rule.layerA == layerB && rule.layerB == layerA)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 两层之间是否有规则
+     */
+    public synchronized boolean collides(int layerA, int layerB) {
+        return (pairs[indexOf(layerA)] & layerB) != 0;
+    }
+
+    /**
+     * 按执行顺序排列的规则（快照）
+     */
+    public synchronized List<Rule> getRules() {
+        return Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    /**
+     * 出现在任一规则中的层
+     */
+    public synchronized int getLayers() {
+        return layers;
+    }
+
+    /**
+     * 层位对应的下标
+     */
+    public static int indexOf(int layer) {
+        if (Integer.bitCount(layer) != 1) {
+            throw new IllegalArgumentException("collision layer must be a single bit: " + layer);
+        }
+        return Integer.numberOfTrailingZeros(layer);
+    }
+}
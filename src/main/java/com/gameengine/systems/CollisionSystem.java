@@ -0,0 +1,627 @@
+package com.gameengine.systems;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.ParallelExecutor;
+import com.gameengine.ecs.EntityHandle;
+import com.gameengine.ecs.EntityRegistry;
+import com.gameengine.ecs.GameSystem;
+import com.gameengine.scene.CommandBuffer;
+import com.gameengine.scene.Scene;
+import com.gameengine.spatial.NarrowphaseKernel;
+import com.gameengine.spatial.RegionPartition;
+import com.gameengine.spatial.SpatialHashGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 碰撞系统：按碰撞层矩阵的规则逐趟检测碰撞体之间的接触并结算
+ * 接触时有生命值的一方受到对方碰撞体的伤害，没有生命值的一方被移除
+ */
+public class CollisionSystem extends GameSystem {
+    private final GameLogic logic;
+    private final Scene scene;
+    private final ParallelExecutor parallel;
+
+    public CollisionSystem(GameLogic logic) {
+        super("Collision");
+        this.logic = logic;
+        this.scene = logic.getScene();
+        this.parallel = logic.getParallel();
+        for (int i = 0; i < Integer.SIZE; i++) {
+            groups.add(new ArrayList<>());
+            centers[i] = new Centers();
+        }
+        // 位置读上一模拟步的快照，可以与移动实体的系统同时运行
+        readsPrevious(TransformComponent.class);
+        reads(ColliderComponent.class);
+        writes(HealthComponent.class);
+    }
+
+    private CollisionMatrix matrix = CollisionMatrix.createDefault();
+
+    // 按层下标分组的实体，每帧按场景查询的顺序重新分组；组内下标决定“第一个接触”
+    private final List<List<GameObject>> groups = new ArrayList<>();
+
+    // 按空间区域分解时每层各自的区域划分（按需创建），regionColumns 为0表示不按区域检测
+    private final RegionPartition[] regions = new RegionPartition[Integer.SIZE];
+    private int regionColumns;
+    private int regionRows;
+
+    // 每层的空间哈希网格（按需创建），每帧重建；为false表示在全局列表上检测
+    private final SpatialHashGrid[] grids = new SpatialHashGrid[Integer.SIZE];
+    private boolean spatialHash = true;
+
+    // 网格边长，与敌人尺寸相当，子弹查询只覆盖 3x3 个格子
+    private static final float GRID_CELL_SIZE = 32;
+
+    // 两两检测每个元素要扫描其后的所有元素，开销大，较小的输入就值得并行
+    private static final int PAIR_CUTOFF = 32;
+
+    // 移除时计入击杀数的层
+    private static final int SCORE_LAYERS = ColliderComponent.LAYER_ENEMY;
+
+    // 全局和网格检测共用的窄相内核（SIMD 可用时成批比较，区域模式不经过内核）和全局检测每层实体的中心/半径数组
+    private NarrowphaseKernel kernel = NarrowphaseKernel.get();
+    private final Centers[] centers = new Centers[Integer.SIZE];
+
+    /**
+     * 一趟检测的结果：要移除的实体和各生命值组件受到的伤害
+     */
+    private static class ContactResult {
+        BitSet toRemove = new BitSet();
+        Map<HealthComponent, Integer> damage = new HashMap<>();
+
+        /**
+         * obj 与 other 接触：有生命值则受到 other 的伤害，否则移除
+         */
+        void hit(GameObject obj, ColliderComponent other) {
+            HealthComponent health = obj.getComponent(HealthComponent.class);
+            if (health == null) {
+                toRemove.set(slot(obj));
+            } else {
+                damage.merge(health, other.getDamage(), Integer::sum);
+            }
+        }
+
+        void contact(GameObject a, ColliderComponent colliderA, GameObject b, ColliderComponent colliderB) {
+            hit(a, colliderB);
+            hit(b, colliderA);
+        }
+
+        ContactResult merge(ContactResult other) {
+            toRemove.or(other.toRemove);
+            other.damage.forEach((health, amount) -> damage.merge(health, amount, Integer::sum));
+            return this;
+        }
+    }
+
+    /**
+     * 一组实体按列表顺序连续存放的中心和外接圆半径；缺少组件或已标记移除的实体中心为 NaN，不会被命中
+     */
+    private static class Centers {
+        float[] x = new float[0];
+        float[] y = new float[0];
+        float[] radius = new float[0];
+        ColliderComponent[] colliders = new ColliderComponent[0];
+        int size;
+
+        void fill(List<GameObject> group, BitSet markedToRemove) {
+            size = group.size();
+            if (x.length < size) {
+                int capacity = Math.max(size, x.length * 2);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                radius = Arrays.copyOf(radius, capacity);
+                colliders = Arrays.copyOf(colliders, capacity);
+            }
+            for (int i = 0; i < size; i++) {
+                GameObject obj = group.get(i);
+                TransformComponent transform = obj.getComponent(TransformComponent.class);
+                ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+                colliders[i] = collider;
+                if (transform == null || collider == null || markedToRemove.get(slot(obj))) {
+                    x[i] = Float.NaN;
+                    y[i] = Float.NaN;
+                    radius[i] = 0;
+                    continue;
+                }
+                x[i] = transform.getPreviousX() + collider.getOffsetX();
+                y[i] = transform.getPreviousY() + collider.getOffsetY();
+                radius[i] = collider.getBoundingRadius();
+            }
+        }
+    }
+
+    /**
+     * 碰撞结果按实体句柄的槽位下标记录在位图中
+     */
+    private static int slot(GameObject obj) {
+        return EntityHandle.index(obj.getHandle());
+    }
+
+    /**
+     * 两个碰撞体的层掩码互相匹配且间距小于边距
+     */
+    private static boolean touching(ColliderComponent a, float ax, float ay,
+                                    ColliderComponent b, float bx, float by, float margin) {
+        return a.accepts(b) && ColliderComponent.touches(a, ax, ay, b, bx, by, margin);
+    }
+
+    /**
+     * 窄相内核报告外接圆相交后的精确判断：层掩码互相匹配，两个圆时内核结果已是精确结果，否则按形状检测
+     * 全局和网格路径都经过内核，用同一个判断保证结果一致
+     */
+    private static boolean confirms(ColliderComponent a, float ax, float ay,
+                                    ColliderComponent b, float bx, float by, float margin) {
+        return a.accepts(b) && ((a.isCircle() && b.isCircle()) || ColliderComponent.touches(a, ax, ay, b, bx, by, margin));
+    }
+
+    /**
+     * 查询方没有生命值时接触即被移除，只结算第一个接触
+     */
+    private static boolean consumedOnContact(GameObject obj) {
+        return !obj.hasComponent(HealthComponent.class);
+    }
+
+    /**
+     * 一帧的检测结果：接触时被移除的实体（按槽位）和各生命值组件受到的伤害，尚未结算
+     */
+    public static final class Contacts {
+        private final BitSet removed;
+        private final Map<HealthComponent, Integer> damage;
+
+        Contacts(BitSet removed, Map<HealthComponent, Integer> damage) {
+            this.removed = removed;
+            this.damage = damage;
+        }
+
+        /**
+         * 接触时被移除的实体槽位，不含伤害致死的实体
+         */
+        public BitSet getRemoved() {
+            return removed;
+        }
+
+        public Map<HealthComponent, Integer> getDamage() {
+            return damage;
+        }
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        if (logic.isGameOver()) return;
+
+        Contacts contacts = detect();
+        BitSet markedToRemove = contacts.removed;
+        logic.addEnemiesKilled(countScored(markedToRemove));
+
+        // 结算伤害：玩家死亡结束游戏，其他实体死亡后移除
+        BitSet killed = new BitSet();
+        for (Map.Entry<HealthComponent, Integer> entry : contacts.damage.entrySet()) {
+            HealthComponent health = entry.getKey();
+            health.takeDamage(entry.getValue());
+            if (!health.isDead()) continue;
+            GameObject owner = health.getOwner();
+            ColliderComponent collider = owner.getComponent(ColliderComponent.class);
+            if (collider != null && collider.getLayer() == ColliderComponent.LAYER_PLAYER) {
+                logic.onPlayerDead();
+            } else if (!markedToRemove.get(slot(owner))) {
+                killed.set(slot(owner));
+            }
+        }
+        logic.addEnemiesKilled(countScored(killed));
+        markedToRemove.or(killed);
+
+        // Batch remove：按槽位顺序记录到命令缓冲，在场景同步点回放
+        EntityRegistry registry = EntityRegistry.getInstance();
+        CommandBuffer commands = scene.createCommandBuffer(getOrder(), 0);
+        for (int i = markedToRemove.nextSetBit(0); i >= 0; i = markedToRemove.nextSetBit(i + 1)) {
+            GameObject obj = registry.entityAt(i);
+            if (obj != null) {
+                commands.destroy(obj);
+            }
+        }
+    }
+
+    /**
+     * 按当前模式（区域、网格或全局）执行矩阵中的全部规则，只检测不结算：不扣生命值、不计击杀、不修改场景
+     * 各模式的结果完全一致
+     */
+    public Contacts detect() {
+        List<CollisionMatrix.Rule> rules = matrix.getRules();
+        int layers = matrix.getLayers();
+        groupByLayer(layers);
+        if (regionColumns > 0) {
+            updateRegions(rules, layers);
+        } else if (spatialHash) {
+            for (int layer = layers; layer != 0; layer &= layer - 1) {
+                int index = Integer.numberOfTrailingZeros(layer);
+                if (grids[index] == null) {
+                    grids[index] = new SpatialHashGrid(GRID_CELL_SIZE);
+                }
+                grids[index].rebuild(groups.get(index));
+            }
+        }
+
+        // 规则按顺序执行，每一趟都跳过前面已标记移除的实体
+        BitSet markedToRemove = new BitSet();
+        Map<HealthComponent, Integer> damage = new HashMap<>();
+        for (CollisionMatrix.Rule rule : rules) {
+            ContactResult result;
+            if (regionColumns > 0) {
+                result = rule.isSameLayer() ? pairsByRegion(rule, markedToRemove) : crossByRegion(rule, markedToRemove);
+            } else if (spatialHash) {
+                result = rule.isSameLayer() ? pairsByGrid(rule, markedToRemove) : crossByGrid(rule, markedToRemove);
+            } else {
+                result = rule.isSameLayer() ? pairsGlobal(rule, markedToRemove) : crossGlobal(rule, markedToRemove);
+            }
+            markedToRemove.or(result.toRemove);
+            result.damage.forEach((health, amount) -> damage.merge(health, amount, Integer::sum));
+        }
+        return new Contacts(markedToRemove, damage);
+    }
+
+    /**
+     * 按层分组：位与判断层是否出现在矩阵中，不比较名称
+     */
+    private void groupByLayer(int layers) {
+        for (List<GameObject> group : groups) {
+            group.clear();
+        }
+        for (GameObject obj : scene.findGameObjectsByComponent(ColliderComponent.class)) {
+            ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+            if (collider == null || !collider.isEnabled() || (collider.getLayer() & layers) == 0) continue;
+            groups.get(Integer.numberOfTrailingZeros(collider.getLayer())).add(obj);
+        }
+    }
+
+    private List<GameObject> group(int layer) {
+        return groups.get(CollisionMatrix.indexOf(layer));
+    }
+
+    /**
+     * 被移除的实体中属于计分层的数量
+     */
+    private static int countScored(BitSet removed) {
+        EntityRegistry registry = EntityRegistry.getInstance();
+        int count = 0;
+        for (int i = removed.nextSetBit(0); i >= 0; i = removed.nextSetBit(i + 1)) {
+            GameObject obj = registry.entityAt(i);
+            ColliderComponent collider = obj != null ? obj.getComponent(ColliderComponent.class) : null;
+            if (collider != null && (collider.getLayer() & SCORE_LAYERS) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 在全局列表上检测两层之间的接触：每个查询方用窄相内核按下标升序扫描另一层
+     */
+    private ContactResult crossGlobal(CollisionMatrix.Rule rule, BitSet markedToRemove) {
+        List<GameObject> groupA = group(rule.getLayerA());
+        List<GameObject> groupB = group(rule.getLayerB());
+        Centers a = centers[CollisionMatrix.indexOf(rule.getLayerA())];
+        Centers b = centers[CollisionMatrix.indexOf(rule.getLayerB())];
+        a.fill(groupA, markedToRemove);
+        b.fill(groupB, markedToRemove);
+        float margin = rule.getMargin();
+        return parallel.parallelReduce(0, a.size, (from, to) -> {
+            ContactResult res = new ContactResult();
+            for (int j = from; j < to; j++) {
+                float ax = a.x[j];
+                if (Float.isNaN(ax)) continue;
+                float ay = a.y[j];
+                GameObject objA = groupA.get(j);
+                ColliderComponent colliderA = a.colliders[j];
+                boolean consumed = consumedOnContact(objA);
+                kernel.scan(ax, ay, a.radius[j], margin, b.x, b.y, b.radius, 0, b.size, i -> {
+                    ColliderComponent colliderB = b.colliders[i];
+                    if (!confirms(colliderA, ax, ay, colliderB, b.x[i], b.y[i], margin)) return false;
+                    res.contact(objA, colliderA, groupB.get(i), colliderB);
+                    return consumed;
+                });
+            }
+            return res;
+        }, ContactResult::merge);
+    }
+
+    /**
+     * 在全局列表上检测同一层两两之间的接触
+     * 三角形循环前面的元素工作量大，依赖工作窃取平衡负载
+     */
+    private ContactResult pairsGlobal(CollisionMatrix.Rule rule, BitSet markedToRemove) {
+        List<GameObject> group = group(rule.getLayerA());
+        Centers c = centers[CollisionMatrix.indexOf(rule.getLayerA())];
+        c.fill(group, markedToRemove);
+        float margin = rule.getMargin();
+        int n = c.size;
+        return parallel.parallelReduce(0, n, PAIR_CUTOFF, (from, to) -> {
+            ContactResult res = new ContactResult();
+            for (int ii = from; ii < to; ii++) {
+                float x1 = c.x[ii];
+                if (Float.isNaN(x1)) continue;
+                float y1 = c.y[ii];
+                GameObject b1 = group.get(ii);
+                ColliderComponent c1 = c.colliders[ii];
+                kernel.scan(x1, y1, c.radius[ii], margin, c.x, c.y, c.radius, ii + 1, n, jj -> {
+                    ColliderComponent c2 = c.colliders[jj];
+                    if (!confirms(c1, x1, y1, c2, c.x[jj], c.y[jj], margin)) return false;
+                    res.contact(b1, c1, group.get(jj), c2);
+                    return false;
+                });
+            }
+            return res;
+        }, ContactResult::merge);
+    }
+
+    /**
+     * 用空间哈希网格检测两层之间的接触：每个查询方只和附近格子里的实体比较，结果与全局检测完全一致
+     * 查询范围取两者外接圆半径之和加边距；窄相内核直接扫描附近格子的桶，命中后再做与全局检测相同的精确判断
+     */
+    private ContactResult crossByGrid(CollisionMatrix.Rule rule, BitSet markedToRemove) {
+        SpatialHashGrid gridA = grids[CollisionMatrix.indexOf(rule.getLayerA())];
+        SpatialHashGrid gridB = grids[CollisionMatrix.indexOf(rule.getLayerB())];
+        float margin = rule.getMargin();
+        // 多留1像素，避免浮点舍入漏掉恰好在查询边界上的实体
+        float reachB = gridB.getMaxRadius() + margin + 1;
+        return parallel.parallelReduce(0, gridA.size(), (from, to) -> {
+            ContactResult res = new ContactResult();
+            int[] best = new int[1];
+            for (int j = from; j < to; j++) {
+                if (!gridA.isValid(j)) continue;
+                GameObject objA = gridA.get(j);
+                if (markedToRemove.get(slot(objA))) continue;
+                ColliderComponent colliderA = gridA.collider(j);
+                float ax = gridA.centerX(j);
+                float ay = gridA.centerY(j);
+                float radiusA = gridA.radius(j);
+                float reach = radiusA + reachB;
+                if (consumedOnContact(objA)) {
+                    // 只结算列表下标最小的未标记接触，与全局检测按顺序找第一个相同；桶的扫描顺序不是下标顺序，不能提前停止
+                    best[0] = Integer.MAX_VALUE;
+                    gridB.scanNear(ax, ay, reach, radiusA, margin, kernel, i -> {
+                        if (i < best[0] && !markedToRemove.get(slot(gridB.get(i)))
+                                && confirms(colliderA, ax, ay, gridB.collider(i), gridB.centerX(i), gridB.centerY(i), margin)) {
+                            best[0] = i;
+                        }
+                        return false;
+                    });
+                    if (best[0] != Integer.MAX_VALUE) {
+                        res.contact(objA, colliderA, gridB.get(best[0]), gridB.collider(best[0]));
+                    }
+                } else {
+                    gridB.scanNear(ax, ay, reach, radiusA, margin, kernel, i -> {
+                        if (!markedToRemove.get(slot(gridB.get(i)))
+                                && confirms(colliderA, ax, ay, gridB.collider(i), gridB.centerX(i), gridB.centerY(i), margin)) {
+                            res.contact(objA, colliderA, gridB.get(i), gridB.collider(i));
+                        }
+                        return false;
+                    });
+                }
+            }
+            return res;
+        }, ContactResult::merge);
+    }
+
+    /**
+     * 用网格检测同一层两两之间的接触，每一对只在下标较小的一方检测一次
+     */
+    private ContactResult pairsByGrid(CollisionMatrix.Rule rule, BitSet markedToRemove) {
+        SpatialHashGrid grid = grids[CollisionMatrix.indexOf(rule.getLayerA())];
+        float margin = rule.getMargin();
+        float reach = 2 * grid.getMaxRadius() + margin + 1;
+        return parallel.parallelReduce(0, grid.size(), PAIR_CUTOFF, (from, to) -> {
+            ContactResult res = new ContactResult();
+            for (int ii = from; ii < to; ii++) {
+                if (!grid.isValid(ii)) continue;
+                GameObject b1 = grid.get(ii);
+                if (markedToRemove.get(slot(b1))) continue;
+                int first = ii;
+                ColliderComponent c1 = grid.collider(ii);
+                float x1 = grid.centerX(ii);
+                float y1 = grid.centerY(ii);
+                grid.scanNear(x1, y1, reach, grid.radius(ii), margin, kernel, jj -> {
+                    if (jj <= first) return false;
+                    GameObject b2 = grid.get(jj);
+                    if (!markedToRemove.get(slot(b2))
+                            && confirms(c1, x1, y1, grid.collider(jj), grid.centerX(jj), grid.centerY(jj), margin)) {
+                        res.contact(b1, c1, b2, grid.collider(jj));
+                    }
+                    return false;
+                });
+            }
+            return res;
+        }, ContactResult::merge);
+    }
+
+    /**
+     * 更新各层的区域划分并交换幽灵；幽灵边距取该层作为被查询方时最大的接触范围
+     */
+    private void updateRegions(List<CollisionMatrix.Rule> rules, int layers) {
+        for (int layer = layers; layer != 0; layer &= layer - 1) {
+            int index = Integer.numberOfTrailingZeros(layer);
+            if (regions[index] == null) {
+                regions[index] = new RegionPartition(800, 600, regionColumns, regionRows, parallel);
+            }
+            regions[index].update(groups.get(index));
+        }
+        float[] ghostMargins = new float[Integer.SIZE];
+        for (CollisionMatrix.Rule rule : rules) {
+            int a = CollisionMatrix.indexOf(rule.getLayerA());
+            int b = CollisionMatrix.indexOf(rule.getLayerB());
+            // 多留1像素，避免浮点舍入漏掉恰好在边距上的实体
+            float margin = regions[a].getMaxRadius() + regions[b].getMaxRadius() + rule.getMargin() + 1;
+            ghostMargins[b] = Math.max(ghostMargins[b], margin);
+        }
+        for (int layer = layers; layer != 0; layer &= layer - 1) {
+            int index = Integer.numberOfTrailingZeros(layer);
+            regions[index].exchangeGhosts(ghostMargins[index]);
+        }
+    }
+
+    /**
+     * 按空间区域检测两层之间的接触：各区域在自己的线程上只检测本区域的查询方和另一层的本区域实体、幽灵
+     * 结果与全局检测完全一致
+     */
+    private ContactResult crossByRegion(CollisionMatrix.Rule rule, BitSet markedToRemove) {
+        RegionPartition partitionA = regions[CollisionMatrix.indexOf(rule.getLayerA())];
+        RegionPartition partitionB = regions[CollisionMatrix.indexOf(rule.getLayerB())];
+        float margin = rule.getMargin();
+        return parallel.parallelReduce(0, partitionA.getRegionCount(), 1, (from, to) -> {
+            ContactResult res = new ContactResult();
+            for (int r = from; r < to; r++) {
+                RegionPartition.Region regionB = partitionB.getRegions()[r];
+                for (GameObject objA : partitionA.getRegions()[r].getOwned()) {
+                    if (markedToRemove.get(slot(objA))) continue;
+                    ColliderComponent colliderA = partitionA.collider(objA);
+                    float ax = partitionA.centerX(objA);
+                    float ay = partitionA.centerY(objA);
+                    if (consumedOnContact(objA)) {
+                        GameObject target = firstHit(partitionB, regionB.getOwned(), null, colliderA, ax, ay, margin, markedToRemove);
+                        target = firstHit(partitionB, regionB.getGhosts(), target, colliderA, ax, ay, margin, markedToRemove);
+                        if (target != null) {
+                            res.contact(objA, colliderA, target, partitionB.collider(target));
+                        }
+                    } else {
+                        allHits(partitionB, regionB.getOwned(), objA, colliderA, ax, ay, margin, markedToRemove, res);
+                        allHits(partitionB, regionB.getGhosts(), objA, colliderA, ax, ay, margin, markedToRemove, res);
+                    }
+                }
+            }
+            return res;
+        }, ContactResult::merge);
+    }
+
+    /**
+     * 在候选中找与查询方接触且列表下标比 best 更小的未标记实体
+     */
+    private static GameObject firstHit(RegionPartition partition, List<GameObject> candidates, GameObject best,
+                                       ColliderComponent collider, float x, float y, float margin, BitSet markedToRemove) {
+        int bestIndex = best != null ? partition.indexOf(best) : Integer.MAX_VALUE;
+        for (GameObject obj : candidates) {
+            int index = partition.indexOf(obj);
+            if (index >= bestIndex || markedToRemove.get(slot(obj))) continue;
+            if (touching(collider, x, y, partition.collider(obj), partition.centerX(obj), partition.centerY(obj), margin)) {
+                best = obj;
+                bestIndex = index;
+            }
+        }
+        return best;
+    }
+
+    private static void allHits(RegionPartition partition, List<GameObject> candidates, GameObject objA,
+                                ColliderComponent colliderA, float x, float y, float margin,
+                                BitSet markedToRemove, ContactResult res) {
+        for (GameObject obj : candidates) {
+            if (markedToRemove.get(slot(obj))) continue;
+            ColliderComponent collider = partition.collider(obj);
+            if (touching(colliderA, x, y, collider, partition.centerX(obj), partition.centerY(obj), margin)) {
+                res.contact(objA, colliderA, obj, collider);
+            }
+        }
+    }
+
+    /**
+     * 按区域检测同一层两两之间的接触：本区域内两两检测，再与幽灵检测
+     * 跨边界的一对会被两侧区域各发现一次，位图合并后结果不变；有生命值的实体只在下标较小的一方结算伤害
+     */
+    private ContactResult pairsByRegion(CollisionMatrix.Rule rule, BitSet markedToRemove) {
+        RegionPartition partition = regions[CollisionMatrix.indexOf(rule.getLayerA())];
+        float margin = rule.getMargin();
+        return parallel.parallelReduce(0, partition.getRegionCount(), 1, (from, to) -> {
+            ContactResult res = new ContactResult();
+            for (int r = from; r < to; r++) {
+                List<GameObject> owned = partition.getRegions()[r].getOwned();
+                List<GameObject> ghosts = partition.getRegions()[r].getGhosts();
+                for (int ii = 0; ii < owned.size(); ii++) {
+                    GameObject b1 = owned.get(ii);
+                    if (markedToRemove.get(slot(b1))) continue;
+                    for (int jj = ii + 1; jj < owned.size(); jj++) {
+                        checkPair(partition, b1, owned.get(jj), margin, markedToRemove, res);
+                    }
+                    for (GameObject b2 : ghosts) {
+                        if (partition.indexOf(b2) > partition.indexOf(b1)) {
+                            checkPair(partition, b1, b2, margin, markedToRemove, res);
+                        }
+                    }
+                }
+            }
+            return res;
+        }, ContactResult::merge);
+    }
+
+    private static void checkPair(RegionPartition partition, GameObject b1, GameObject b2, float margin,
+                                  BitSet markedToRemove, ContactResult res) {
+        if (markedToRemove.get(slot(b2))) return;
+        ColliderComponent c1 = partition.collider(b1);
+        ColliderComponent c2 = partition.collider(b2);
+        if (touching(c1, partition.centerX(b1), partition.centerY(b1), c2, partition.centerX(b2), partition.centerY(b2), margin)) {
+            res.contact(b1, c1, b2, c2);
+        }
+    }
+
+    /**
+     * 启用按空间区域分解的碰撞检测，把世界切成 columns x rows 个区域；传入0则关闭
+     * 只影响碰撞检测，积分和边界处理仍按原型块并行
+     */
+    public void setRegions(int columns, int rows) {
+        Arrays.fill(regions, null);
+        if (columns <= 0 || rows <= 0) {
+            regionColumns = 0;
+            regionRows = 0;
+            return;
+        }
+        regionColumns = columns;
+        regionRows = rows;
+    }
+
+    /**
+     * 启用或关闭空间哈希网格；关闭后在全局列表上逐对检测
+     */
+    public void setSpatialHash(boolean enabled) {
+        spatialHash = enabled;
+        if (!enabled) {
+            Arrays.fill(grids, null);
+        }
+    }
+
+    /**
+     * 设置碰撞层矩阵，下一帧生效
+     */
+    public void setMatrix(CollisionMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    public CollisionMatrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * 设置全局和网格检测使用的窄相内核，默认取 NarrowphaseKernel.get()；区域模式不使用内核
+     */
+    public void setNarrowphaseKernel(NarrowphaseKernel kernel) {
+        this.kernel = kernel == null ? NarrowphaseKernel.scalar() : kernel;
+    }
+
+    public NarrowphaseKernel getNarrowphaseKernel() {
+        return kernel;
+    }
+
+    public boolean isSpatialHashEnabled() {
+        return spatialHash;
+    }
+
+    public boolean isRegionsEnabled() {
+        return regionColumns > 0;
+    }
+}
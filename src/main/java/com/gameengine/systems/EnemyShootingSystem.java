@@ -0,0 +1,141 @@
+package com.gameengine.systems;
+
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.ParallelExecutor;
+import com.gameengine.core.TimingWheel;
+import com.gameengine.ecs.AmortizedScheduler;
+import com.gameengine.ecs.EntityHandle;
+import com.gameengine.ecs.GameSystem;
+import com.gameengine.math.ScratchVectors;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 敌人射击系统：每个敌人每秒向玩家发射一颗子弹
+ * 开火由时间轮上绑定敌人的周期计时器触发，敌人移除后计时器自动丢弃；
+ * 瞄准方向按帧预算分摊更新：每帧只为预算内的一批敌人重新瞄准，开火时使用最近一次的瞄准结果
+ */
+public class EnemyShootingSystem extends GameSystem {
+    private static final float ENEMY_SHOOT_INTERVAL = 1.0f;
+    // 每帧用于敌人瞄准的时间预算
+    private static final long TARGETING_BUDGET_NANOS = 1_000_000L;
+
+    private final GameLogic logic;
+    private final Scene scene;
+    private final ParallelExecutor parallel;
+    private final TimingWheel timers;
+    private final AmortizedScheduler targeting = new AmortizedScheduler("EnemyTargeting", TARGETING_BUDGET_NANOS);
+    // 按实体槽位缓存的瞄准方向，句柄不匹配表示还没有瞄准过
+    private int[] aimHandles = new int[0];
+    private float[] aimX = new float[0];
+    private float[] aimY = new float[0];
+
+    public EnemyShootingSystem(GameLogic logic) {
+        super("EnemyShooting");
+        this.logic = logic;
+        this.scene = logic.getScene();
+        this.parallel = logic.getParallel();
+        this.timers = logic.getTimers();
+        readsPrevious(TransformComponent.class);
+    }
+
+    /**
+     * 为新生成的敌人安排开火计时器
+     */
+    public void arm(GameObject enemy) {
+        timers.schedulePeriodic(enemy, ENEMY_SHOOT_INTERVAL, () -> fire(enemy));
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        if (logic.isGameOver()) return;
+
+        List<GameObject> enemies = scene.findGameObjectsByTag("Enemy");
+
+        GameObject player = scene.queryByTag("Player").first();
+        if (player == null) return;
+        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
+        if (playerTransform == null) return;
+
+        // 本帧预算内的一批敌人并行瞄准，各自写入自己槽位的缓存
+        targeting.update(enemies, deltaTime, batch -> {
+            int maxSlot = 0;
+            for (GameObject enemy : batch) {
+                maxSlot = Math.max(maxSlot, EntityHandle.index(enemy.getHandle()));
+            }
+            ensureCapacity(maxSlot + 1);
+            parallel.parallelFor(0, batch.size(), (from, to) -> {
+                for (int j = from; j < to; j++) {
+                    aim(batch.get(j), playerTransform);
+                }
+            });
+        });
+    }
+
+    private void aim(GameObject enemy, TransformComponent playerTransform) {
+        TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
+        if (enemyTransform == null) return;
+        ScratchVectors scratch = ScratchVectors.get();
+        int mark = scratch.mark();
+        Vector2 enemyPos = enemyTransform.getPreviousPosition(scratch.next()).addLocal(10, 10);
+        Vector2 direction = playerTransform.getPreviousPosition(scratch.next()).addLocal(10, 10)
+                .subtractLocal(enemyPos).normalizeLocal();
+        int handle = enemy.getHandle();
+        int slot = EntityHandle.index(handle);
+        aimHandles[slot] = handle;
+        aimX[slot] = direction.x;
+        aimY[slot] = direction.y;
+        scratch.release(mark);
+    }
+
+    /**
+     * 计时器到期：沿缓存的瞄准方向开火，还没瞄准过的敌人当场瞄准（游戏线程）
+     */
+    private void fire(GameObject enemy) {
+        if (logic.isGameOver()) return;
+        TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
+        if (enemyTransform == null) return;
+
+        int handle = enemy.getHandle();
+        int slot = EntityHandle.index(handle);
+        if (slot >= aimHandles.length || aimHandles[slot] != handle) {
+            GameObject player = scene.queryByTag("Player").first();
+            TransformComponent playerTransform = player != null ? player.getComponent(TransformComponent.class) : null;
+            if (playerTransform == null) return;
+            ensureCapacity(slot + 1);
+            aim(enemy, playerTransform);
+        }
+
+        ScratchVectors scratch = ScratchVectors.get();
+        int mark = scratch.mark();
+        Vector2 enemyPos = enemyTransform.getPreviousPosition(scratch.next()).addLocal(10, 10);
+        Vector2 direction = scratch.next(aimX[slot], aimY[slot]);
+        Vector2 bulletPos = scratch.next(enemyPos.x + direction.x * 25f, enemyPos.y + direction.y * 25f);
+
+        GameObject bullet = logic.getEnemyBulletPool().spawn(bulletPos, direction.scaleLocal(600f));
+        scratch.release(mark);
+        if (bullet == null) return;
+
+        scene.addGameObject(bullet);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= aimHandles.length) return;
+        int size = Math.max(capacity, aimHandles.length * 2);
+        aimHandles = Arrays.copyOf(aimHandles, size);
+        aimX = Arrays.copyOf(aimX, size);
+        aimY = Arrays.copyOf(aimY, size);
+    }
+
+    /**
+     * 敌人瞄准的分摊调度器（预算、陈旧度统计）
+     */
+    public AmortizedScheduler getTargeting() {
+        return targeting;
+    }
+}
@@ -0,0 +1,90 @@
+package com.gameengine.systems;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.TimingWheel;
+import com.gameengine.ecs.GameSystem;
+import com.gameengine.input.InputManager;
+import com.gameengine.math.ScratchVectors;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+/**
+ * 玩家输入系统：移动、边界限制和射击
+ */
+public class PlayerInputSystem extends GameSystem {
+    private final GameLogic logic;
+    private final Scene scene;
+    private final InputManager inputManager;
+    private final TimingWheel timers;
+    // 射击冷却，计时器等待期间不能再射击
+    private TimingWheel.Timer cooldown;
+    private float shootInterval = 0.2f;
+
+    public PlayerInputSystem(GameLogic logic) {
+        super("PlayerInput");
+        this.logic = logic;
+        this.scene = logic.getScene();
+        this.inputManager = InputManager.getInstance();
+        this.timers = logic.getTimers();
+        writes(TransformComponent.class, PhysicsComponent.class);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        if (logic.isGameOver()) return;
+
+        GameObject player = scene.queryByTag("Player").first();
+        if (player == null) return;
+
+        TransformComponent transform = player.getComponent(TransformComponent.class);
+        PhysicsComponent physics = player.getComponent(PhysicsComponent.class);
+
+        if (transform == null || physics == null) return;
+
+        ScratchVectors scratch = ScratchVectors.get();
+        int mark = scratch.mark();
+        Vector2 movement = scratch.next(0, 0);
+
+        if (inputManager.isKeyPressed(87) || inputManager.isKeyPressed(38)) {
+            movement.y -= 1;
+        }
+        if (inputManager.isKeyPressed(83) || inputManager.isKeyPressed(40)) {
+            movement.y += 1;
+        }
+        if (inputManager.isKeyPressed(65) || inputManager.isKeyPressed(37)) {
+            movement.x -= 1;
+        }
+        if (inputManager.isKeyPressed(68) || inputManager.isKeyPressed(39)) {
+            movement.x += 1;
+        }
+
+        if (movement.magnitude() > 0) {
+            physics.setVelocity(movement.normalizeLocal().scaleLocal(200));
+        }
+
+        Vector2 pos = transform.getPosition(scratch.next());
+        if (pos.x < 0) pos.x = 0;
+        if (pos.y < 0) pos.y = 0;
+        if (pos.x > 800 - 20) pos.x = 800 - 20;
+        if (pos.y > 600 - 20) pos.y = 600 - 20;
+        transform.setPosition(pos);
+
+        if (inputManager.isKeyPressed(32) && (cooldown == null || !cooldown.isPending())) {
+            cooldown = timers.schedule(shootInterval, () -> {});
+
+            Vector2 playerPos = transform.getPosition(scratch.next()).addLocal(10, 10);
+            Vector2 direction = inputManager.getMousePosition(scratch.next()).subtractLocal(playerPos).normalizeLocal();
+            Vector2 bulletPos = scratch.next(playerPos.x + direction.x * 25f, playerPos.y + direction.y * 25f);
+
+            // 子弹每帧只积分一次，速度取原先双重积分时的实际屏幕速度
+            GameObject bullet = logic.getPlayerBulletPool().spawn(bulletPos, direction.scaleLocal(800f));
+            if (bullet != null) {
+                scene.createCommandBuffer(getOrder(), 0).spawn(bullet);
+            }
+        }
+        scratch.release(mark);
+    }
+}